@@ -0,0 +1,10 @@
+package com.ecommerce.order.common.exception;
+
+// Expected outcome of a request (no stock, payment declined, unknown id) rather than a bug.
+// These are frequent and always turned into an error response, so no stack trace is captured.
+public abstract class BusinessException extends RuntimeException {
+
+    protected BusinessException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.order.common.exception;
+
+public class InsufficientStockException extends BusinessException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.order.common.exception;
+
+public class PaymentFailedException extends BusinessException {
+
+    public static final String DEFAULT_MESSAGE = "Payment failed. Order not placed.";
+
+    public PaymentFailedException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public PaymentFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.order.common.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+// Error body in the RFC 7807 problem shape, sent as application/problem+json.
+// type is always about:blank, so title is the status reason phrase and detail says what went wrong.
+public record Problem(String type, String title, int status, String detail) {
+
+    private static final HttpHeaders PROBLEM_JSON;
+
+    static {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        PROBLEM_JSON = HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    public static Problem of(HttpStatus status, String detail) {
+        return new Problem("about:blank", status.getReasonPhrase(), status.value(), detail);
+    }
+
+    // the headers are shared and read-only, so a response with a fixed detail can be built once and reused
+    public static ResponseEntity<Problem> response(HttpStatus status, String detail) {
+        return new ResponseEntity<>(of(status, detail), PROBLEM_JSON, status);
+    }
+
+    // for the few responses that carry a header of their own, such as Retry-After
+    public static ResponseEntity<Problem> response(HttpStatus status, String detail, String header, String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        headers.set(header, value);
+        return new ResponseEntity<>(of(status, detail), headers, status);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.order.common.exception;
+
+public class ResourceNotFoundException extends BusinessException {
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.order.common.exception;
+
+public class UserNotFoundException extends BusinessException {
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.order.common.exception;
+
+// the client wrote against a version of the row that is no longer current
+public class VersionConflictException extends BusinessException {
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
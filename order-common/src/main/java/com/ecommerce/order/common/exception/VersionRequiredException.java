@@ -0,0 +1,8 @@
+package com.ecommerce.order.common.exception;
+
+// an update that replaces stock must say which version it read
+public class VersionRequiredException extends BusinessException {
+    public VersionRequiredException(String message) {
+        super(message);
+    }
+}
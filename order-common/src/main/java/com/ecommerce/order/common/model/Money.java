@@ -0,0 +1,84 @@
+package com.ecommerce.order.common.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.Embeddable;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Objects;
+
+// an amount in minor units (cents for USD) of one currency, all arithmetic is exact long math.
+// embedded as two columns, <prefix>_minor and <prefix>_currency, so sums stay in the database as integers
+@Embeddable
+@JsonSerialize(using = MoneyJson.Serializer.class)
+@JsonDeserialize(using = MoneyJson.Deserializer.class)
+public record Money(long amountMinor, Currency currency) {
+
+    // the shop sells in one currency, a bare amount in a request is taken to be in it
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+
+    // digits of Long.MAX_VALUE
+    private static final int LONG_DIGITS = 19;
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money ofMinor(long amountMinor, Currency currency) {
+        return new Money(amountMinor, currency);
+    }
+
+    // rejects amounts with more decimals than the currency has rather than rounding them away.
+    // the bounds are checked before setScale, which would otherwise work through a power of ten as large
+    // as the exponent of an amount like 1e99999999
+    public static Money of(BigDecimal amount, Currency currency) {
+        int fractionDigits = fractionDigits(currency);
+        if (amount.precision() - amount.scale() > LONG_DIGITS || amount.stripTrailingZeros().scale() > fractionDigits) {
+            throw invalid(amount, currency);
+        }
+        try {
+            return new Money(amount.setScale(fractionDigits).unscaledValue().longValueExact(), currency);
+        } catch (ArithmeticException e) {
+            throw invalid(amount, currency);
+        }
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount), DEFAULT_CURRENCY);
+    }
+
+    public Money times(int quantity) {
+        return new Money(Math.multiplyExact(amountMinor, quantity), currency);
+    }
+
+    public Money plus(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot add " + other.currency + " to " + currency);
+        }
+        return new Money(Math.addExact(amountMinor, other.amountMinor), currency);
+    }
+
+    public boolean isPositive() {
+        return amountMinor > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(amountMinor, fractionDigits(currency));
+    }
+
+    // toString, not toPlainString, which writes out every digit of a huge exponent
+    private static IllegalArgumentException invalid(BigDecimal amount, Currency currency) {
+        return new IllegalArgumentException("Amount " + amount + " is not a valid " + currency.getCurrencyCode() + " amount");
+    }
+
+    private static int fractionDigits(Currency currency) {
+        // pseudo currencies report -1
+        return Math.max(currency.getDefaultFractionDigits(), 0);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+}
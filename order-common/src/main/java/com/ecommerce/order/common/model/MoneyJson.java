@@ -0,0 +1,91 @@
+package com.ecommerce.order.common.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Currency;
+
+// JSON form of Money: {"amount": 10.50, "currency": "USD"}. the amount is written from the minor units
+// as an exact decimal, never through a double. requests may also send a bare number or string in the default currency
+public final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    public static class Serializer extends JsonSerializer<Money> {
+
+        @Override
+        public void serialize(Money money, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName("amount");
+            gen.writeNumber(money.toBigDecimal().toPlainString());
+            gen.writeStringField("currency", money.currency().getCurrencyCode());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Money> {
+
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                return money(p, ctxt, amount(p, ctxt), Money.DEFAULT_CURRENCY);
+            }
+            BigDecimal amount = null;
+            Currency currency = Money.DEFAULT_CURRENCY;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "amount" -> amount = amount(p, ctxt);
+                    case "currency" -> currency = currency(p, ctxt);
+                    default -> p.skipChildren();
+                }
+            }
+            if (amount == null) {
+                return ctxt.reportInputMismatch(Money.class, "Amount is required");
+            }
+            return money(p, ctxt, amount, currency);
+        }
+
+        // the parser keeps the number's text, so a decimal never passes through a double on the way in either
+        private static BigDecimal amount(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                return p.getDecimalValue();
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                try {
+                    return new BigDecimal(p.getText().trim());
+                } catch (NumberFormatException e) {
+                    return (BigDecimal) ctxt.handleWeirdStringValue(BigDecimal.class, p.getText(), "not a decimal amount");
+                }
+            }
+            return (BigDecimal) ctxt.handleUnexpectedToken(BigDecimal.class, p);
+        }
+
+        private static Currency currency(JsonParser p, DeserializationContext ctxt) throws IOException {
+            try {
+                return Currency.getInstance(p.getValueAsString(""));
+            } catch (IllegalArgumentException e) {
+                return (Currency) ctxt.handleWeirdStringValue(Currency.class, p.getText(), "not an ISO 4217 currency code");
+            }
+        }
+
+        private static Money money(JsonParser p, DeserializationContext ctxt, BigDecimal amount, Currency currency)
+                throws IOException {
+            try {
+                return Money.of(amount, currency);
+            } catch (IllegalArgumentException e) {
+                return (Money) ctxt.handleWeirdNumberValue(Money.class, amount, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.order.common.model;
+
+public enum OrderEventType {
+    CREATED,
+    PLACED,
+    FAILED
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.order.common.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testArithmeticIsExact() {
+        Money price = Money.of("0.10");
+
+        // 0.1 * 3 is 0.30000000000000004 as a double
+        assertEquals(Money.of("0.30"), price.times(3));
+        assertEquals(30, price.times(3).amountMinor());
+        assertEquals(Money.of("0.40"), price.times(3).plus(price));
+        assertThrows(IllegalArgumentException.class,
+                () -> price.plus(Money.of(BigDecimal.ONE, Currency.getInstance("EUR"))));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE, Money.DEFAULT_CURRENCY).times(2));
+    }
+
+    @Test
+    void testAmountsFinerThanTheCurrencyAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of("10.005"));
+        assertEquals(500, Money.of(new BigDecimal("500"), Currency.getInstance("JPY")).amountMinor());
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("500.5"), Currency.getInstance("JPY")));
+    }
+
+    @Test
+    void testHugeExponentsAreRejectedWithoutExpandingThem() {
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            assertThrows(IllegalArgumentException.class, () -> Money.of("1e99999999"));
+            assertThrows(IllegalArgumentException.class, () -> Money.of("1e-99999999"));
+            assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("1e99999999", Money.class));
+        });
+        assertThrows(IllegalArgumentException.class, () -> Money.of("92233720368547758.08"));
+        assertEquals(Long.MAX_VALUE, Money.of("92233720368547758.07").amountMinor());
+        // trailing zeros are not extra decimals
+        assertEquals(Money.of("10.00"), Money.of("10.0000"));
+        assertEquals(Money.of("100"), Money.of("1E+2"));
+    }
+
+    @Test
+    void testJsonRoundTrip() throws Exception {
+        assertEquals("{\"amount\":1234.50,\"currency\":\"USD\"}", objectMapper.writeValueAsString(Money.of("1234.5")));
+        assertEquals(Money.of("1234.50"), objectMapper.readValue("{\"amount\":1234.50,\"currency\":\"USD\"}", Money.class));
+        assertEquals(Money.of("0.07"), objectMapper.readValue("0.07", Money.class));
+        assertEquals(Money.of("19.99"), objectMapper.readValue("\"19.99\"", Money.class));
+        assertEquals(Money.of(new BigDecimal("5"), Currency.getInstance("EUR")),
+                objectMapper.readValue("{\"currency\":\"EUR\",\"amount\":\"5\"}", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("10.005", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("{\"amount\":1,\"currency\":\"XYZ\"}", Money.class));
+    }
+}
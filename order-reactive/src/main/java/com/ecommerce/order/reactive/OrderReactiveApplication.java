@@ -0,0 +1,13 @@
+package com.ecommerce.order.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class OrderReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(OrderReactiveApplication.class, args);
+	}
+
+}
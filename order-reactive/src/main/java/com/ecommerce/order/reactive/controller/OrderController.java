@@ -0,0 +1,48 @@
+package com.ecommerce.order.reactive.controller;
+
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.reactive.dto.OrderPage;
+import com.ecommerce.order.reactive.dto.OrderQuery;
+import com.ecommerce.order.reactive.dto.OrderView;
+import com.ecommerce.order.reactive.service.OrderCheckoutService;
+import com.ecommerce.order.reactive.service.OrderService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// POST and GET /order with the order module's request and response bodies. Idempotency-Key,
+// batches, the NDJSON export and the event stream are only served by the order module.
+@RestController
+public class OrderController {
+    static class OrderRequest {
+        public Long productId;
+        public String userId;
+        public int quantity;
+    }
+
+    private final OrderService orderService;
+    private final OrderCheckoutService orderCheckoutService;
+
+    public OrderController(OrderService orderService, OrderCheckoutService orderCheckoutService) {
+        this.orderService = orderService;
+        this.orderCheckoutService = orderCheckoutService;
+    }
+
+
+    @PostMapping("/order")
+    public Mono<OrderView> placeOrder(@RequestBody OrderRequest request) {
+        return orderCheckoutService.checkout(request.productId, request.userId, request.quantity);
+    }
+
+    @GetMapping("/order")
+    public Mono<OrderPage> getAllOrders(@RequestParam(required = false) String userId,
+                                        @RequestParam(required = false) OrderStatus status,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "50") int limit) {
+        return orderService.getOrders(new OrderQuery(userId, status, from, to), cursor, limit);
+    }
+}
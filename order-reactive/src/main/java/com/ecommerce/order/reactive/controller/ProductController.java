@@ -0,0 +1,80 @@
+package com.ecommerce.order.reactive.controller;
+
+import com.ecommerce.order.common.exception.VersionRequiredException;
+import com.ecommerce.order.reactive.dto.ProductRequest;
+import com.ecommerce.order.reactive.dto.ProductView;
+import com.ecommerce.order.reactive.service.ProductService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+public class ProductController {
+
+    private final ProductService productService;
+
+    public ProductController(ProductService productService) {
+        this.productService = productService;
+    }
+
+
+    @GetMapping("/product")
+    public Flux<ProductView> getAllProducts() {
+        return productService.getAllProducts();
+    }
+
+    @PostMapping("/product")
+    public Mono<ResponseEntity<?>> createProduct(@Valid @RequestBody Mono<ProductRequest> product) {
+        return product
+                .flatMap(productService::saveProduct)
+                .<ResponseEntity<?>>map(saved -> new ResponseEntity<>(saved, HttpStatus.CREATED))
+                .onErrorResume(WebExchangeBindException.class, result -> {
+                    // return validation errors
+                    Map<String, String> errors = new HashMap<>();
+                    result.getFieldErrors().forEach(error ->
+                            errors.put(error.getField(), error.getDefaultMessage())
+                    );
+                    return Mono.just(ResponseEntity.badRequest().body(errors));
+                });
+    }
+
+    // same contract as the order module: the client names the version it read, as If-Match or as the
+    // version field, and gets a 409 if an order or another update came first
+    @PutMapping("/product/{id}")
+    public Mono<ResponseEntity<?>> updateProduct(@PathVariable Long id,
+                                                 @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestBody ProductRequest updatedProduct) {
+        return Mono.fromCallable(() -> expectedVersion(ifMatch, updatedProduct.version()))
+                .flatMap(version -> productService.updateProduct(id, updatedProduct, version))
+                .map(saved -> ResponseEntity.ok().eTag(String.valueOf(saved.getVersion())).body(saved));
+    }
+
+    private static long expectedVersion(String ifMatch, Long bodyVersion) {
+        if (ifMatch == null) {
+            if (bodyVersion == null) {
+                throw new VersionRequiredException("Send the product version you read as If-Match or as the version field");
+            }
+            return bodyVersion;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new VersionRequiredException("If-Match must be a product version, got " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.order.reactive.controller;
+
+import com.ecommerce.order.reactive.dto.UserView;
+import com.ecommerce.order.reactive.model.User;
+import com.ecommerce.order.reactive.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+public class UserController {
+
+    private final UserService userService;
+
+    public UserController(UserService userService) {
+        this.userService = userService;
+    }
+
+    @PostMapping("/user")
+    public Mono<ResponseEntity<?>> createUser(@RequestBody @Valid User user) {
+        return userService.saveUser(user)
+                .<ResponseEntity<?>>map(saved -> ResponseEntity.ok(UserView.from(saved)))
+                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body("User ID already exists.")));
+    }
+
+
+    @GetMapping("/user")
+    public Flux<UserView> getAllUsers() {
+        return userService.getAllUsers();
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<UserView> getUserByUserId(@PathVariable String userId) {
+        return userService.getUser(userId)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found with userId: " + userId)));
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.order.reactive.dto;
+
+import com.ecommerce.order.common.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// optional filters for order listing, null means "any"; to is exclusive
+public record OrderQuery(String userId, OrderStatus status, LocalDateTime from, LocalDateTime to) {
+}
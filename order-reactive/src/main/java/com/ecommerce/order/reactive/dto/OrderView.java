@@ -0,0 +1,15 @@
+package com.ecommerce.order.reactive.dto;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// same JSON as the order module's OrderView, also used as the outbox payload
+public record OrderView(Long id, String userId, Long productId, String productName, int quantity,
+                        Money totalAmount, OrderStatus status, LocalDateTime createdAt) {
+
+    public OrderView withStatus(OrderStatus status) {
+        return new OrderView(id, userId, productId, productName, quantity, totalAmount, status, createdAt);
+    }
+}
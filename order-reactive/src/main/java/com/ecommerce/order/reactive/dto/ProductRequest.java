@@ -0,0 +1,16 @@
+package com.ecommerce.order.reactive.dto;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.PositiveMoney;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+// body of POST and PUT /product, same fields and messages as the order module's Product.
+// version is the one the client read, PUT takes it when there is no If-Match header and POST ignores it
+public record ProductRequest(
+        @NotBlank(message = "Product name is required") String name,
+        @NotNull(message = "Price is required") @PositiveMoney(message = "Price must be greater than 0") Money price,
+        @NotNull(message = "Stock is required") @Min(value = 1, message = "Stock at least 1 is required") Integer stock,
+        Long version) {
+}
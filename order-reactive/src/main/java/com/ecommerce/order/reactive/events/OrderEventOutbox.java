@@ -0,0 +1,43 @@
+package com.ecommerce.order.reactive.events;
+
+import com.ecommerce.order.common.model.OrderEventType;
+import com.ecommerce.order.reactive.dto.OrderView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// Writes order events to the same order_outbox table the order module uses; its relay publishes them.
+// Must join the transaction that changes the order, so the event exists exactly when the change does.
+@Component
+public class OrderEventOutbox {
+
+    // the type is a literal for r2dbc-h2's sake, see OrderRepository.insert
+    // the id is an identity column, so the stream sees ids in insert order
+    private static final String INSERT = "insert into order_outbox (order_id, type, payload, created_at) " +
+            "values (:orderId, '%s', :payload, :createdAt)";
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    public OrderEventOutbox(DatabaseClient databaseClient, ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Mono<Void> record(OrderEventType type, OrderView order) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(order))
+                .flatMap(payload -> databaseClient.sql(INSERT.formatted(type.name()))
+                        .bind("orderId", order.id())
+                        .bind("payload", payload)
+                        .bind("createdAt", LocalDateTime.now())
+                        .fetch()
+                        .rowsUpdated())
+                .then();
+    }
+}
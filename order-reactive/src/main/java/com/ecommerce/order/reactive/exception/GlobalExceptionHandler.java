@@ -0,0 +1,72 @@
+package com.ecommerce.order.reactive.exception;
+
+import com.ecommerce.order.common.exception.InsufficientStockException;
+import com.ecommerce.order.common.exception.PaymentFailedException;
+import com.ecommerce.order.common.exception.Problem;
+import com.ecommerce.order.common.exception.ResourceNotFoundException;
+import com.ecommerce.order.common.exception.UserNotFoundException;
+import com.ecommerce.order.common.exception.VersionConflictException;
+import com.ecommerce.order.common.exception.VersionRequiredException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    // the payment failure response never changes, built once
+    private static final ResponseEntity<Problem> PAYMENT_FAILED =
+            Problem.response(HttpStatus.PAYMENT_REQUIRED, PaymentFailedException.DEFAULT_MESSAGE);
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<Problem> handleNotFound(ResourceNotFoundException ex) {
+        return Problem.response(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<Problem> handleStockError(InsufficientStockException ex) {
+        return Problem.response(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<Problem> handleVersionConflict(VersionConflictException ex) {
+        return Problem.response(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(VersionRequiredException.class)
+    public ResponseEntity<Problem> handleVersionRequired(VersionRequiredException ex) {
+        return Problem.response(HttpStatus.PRECONDITION_REQUIRED, ex.getMessage());
+    }
+
+    // malformed JSON, a value Jackson rejects such as a price with more decimals than its currency,
+    // or a request body that fails validation
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<Problem> handleBadInput(ServerWebInputException ex) {
+        return Problem.response(HttpStatus.BAD_REQUEST, ex.getMostSpecificCause().getMessage());
+    }
+
+    // request values the services reject, such as a page limit out of range, a malformed cursor or an oversized batch
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Problem> handleIllegalArgument(IllegalArgumentException ex) {
+        return Problem.response(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Problem> handleGeneric(Exception ex) {
+        return Problem.response(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
+    }
+
+    @ExceptionHandler(PaymentFailedException.class)
+    public ResponseEntity<Problem> handlePaymentFailed(PaymentFailedException ex) {
+        return PaymentFailedException.DEFAULT_MESSAGE.equals(ex.getMessage())
+                ? PAYMENT_FAILED
+                : Problem.response(HttpStatus.PAYMENT_REQUIRED, ex.getMessage());
+    }
+
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<Problem> handleUserNotFound(UserNotFoundException ex) {
+        return Problem.response(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+}
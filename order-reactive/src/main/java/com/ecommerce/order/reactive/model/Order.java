@@ -0,0 +1,77 @@
+package com.ecommerce.order.reactive.model;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+// the orders row. the id is taken from orders_seq before the insert, see PooledSequences
+@Table("orders")
+public class Order {
+
+    @Id
+    private Long id;
+    private String userId;
+    private Long productId;
+    private int quantity;
+    private long totalMinor;
+    private String totalCurrency;
+    private OrderStatus status;
+    private LocalDateTime createdAt;
+
+    public Order() {
+    }
+
+    public Order(Long id, String userId, Long productId, int quantity, Money totalAmount, OrderStatus status,
+                 LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.totalMinor = totalAmount.amountMinor();
+        this.totalCurrency = totalAmount.currency().getCurrencyCode();
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public Money getTotalAmount() {
+        return Money.ofMinor(totalMinor, Currency.getInstance(totalCurrency));
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Order{id=" + id +
+                ", userId='" + userId + '\'' +
+                ", productId=" + productId +
+                ", quantity=" + quantity +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.order.reactive.model;
+
+import com.ecommerce.order.common.model.Money;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+// the products row; price is kept as its two columns and exposed as Money
+@Table("products")
+public class Product {
+
+    @Id
+    private Long id;
+    private String name;
+    private long priceMinor;
+    private String priceCurrency;
+    private int stock;
+    private LocalDateTime createdDate;
+    private LocalDateTime updatedDate;
+    // bumped by every write, the order module's optimistic locking checks it
+    private long version;
+
+    public Product() {
+    }
+
+    public Product(String name, Money price, int stock, LocalDateTime createdDate, LocalDateTime updatedDate) {
+        this.name = name;
+        setPrice(price);
+        this.stock = stock;
+        this.createdDate = createdDate;
+        this.updatedDate = updatedDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Money getPrice() {
+        return Money.ofMinor(priceMinor, Currency.getInstance(priceCurrency));
+    }
+
+    public void setPrice(Money price) {
+        this.priceMinor = price.amountMinor();
+        this.priceCurrency = price.currency().getCurrencyCode();
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public LocalDateTime getUpdatedDate() {
+        return updatedDate;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "Product{id=" + id +
+                ", name='" + name + '\'' +
+                ", stock=" + stock +
+                ", version=" + version +
+                '}';
+    }
+}
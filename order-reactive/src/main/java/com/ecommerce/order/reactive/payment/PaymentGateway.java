@@ -0,0 +1,11 @@
+package com.ecommerce.order.reactive.payment;
+
+import com.ecommerce.order.reactive.dto.OrderView;
+import reactor.core.publisher.Mono;
+
+public interface PaymentGateway {
+
+    // emits true when the amount was captured, false when it was declined
+    Mono<Boolean> charge(OrderView order);
+
+}
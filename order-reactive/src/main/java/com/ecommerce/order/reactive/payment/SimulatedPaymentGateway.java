@@ -0,0 +1,28 @@
+package com.ecommerce.order.reactive.payment;
+
+import com.ecommerce.order.reactive.dto.OrderView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Local stand-in for a payment provider: answers after a fixed latency on the timer, no thread waits meanwhile.
+@Component
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final Duration latency;
+    private final double successRate;
+
+    public SimulatedPaymentGateway(@Value("${payment.simulated.latency-ms:200}") long latencyMs,
+                                   @Value("${payment.simulated.success-rate:0.5}") double successRate) {
+        this.latency = Duration.ofMillis(latencyMs);
+        this.successRate = successRate;
+    }
+
+    @Override
+    public Mono<Boolean> charge(OrderView order) {
+        return Mono.delay(latency).map(tick -> ThreadLocalRandom.current().nextDouble() < successRate);
+    }
+}
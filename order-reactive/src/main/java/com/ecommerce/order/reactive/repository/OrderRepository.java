@@ -0,0 +1,101 @@
+package com.ecommerce.order.reactive.repository;
+
+import com.ecommerce.order.common.dto.OrderCursor;
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.reactive.dto.OrderQuery;
+import com.ecommerce.order.reactive.dto.OrderView;
+import com.ecommerce.order.reactive.model.Order;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Orders through DatabaseClient rather than a derived repository: ids are assigned before the insert,
+// which a repository save would take for an update, and the listing only adds the filters that are set.
+@Repository
+public class OrderRepository {
+
+    private static final String VIEW = "select o.id, o.user_id, o.product_id, p.name as product_name, o.quantity, " +
+            "o.total_minor, o.total_currency, o.status, o.created_at from orders o left join products p on p.id = o.product_id";
+
+    private final DatabaseClient databaseClient;
+
+    public OrderRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // statuses are written as literals: they are enum constants, and r2dbc-h2 cannot bind a string
+    // to an ENUM column or compare one with it
+    public Mono<Void> insert(Order order) {
+        return databaseClient.sql("insert into orders (id, user_id, product_id, quantity, total_minor, total_currency, status, created_at) " +
+                        "values (:id, :userId, :productId, :quantity, :totalMinor, :totalCurrency, '" + order.getStatus().name() + "', :createdAt)")
+                .bind("id", order.getId())
+                .bind("userId", order.getUserId())
+                .bind("productId", order.getProductId())
+                .bind("quantity", order.getQuantity())
+                .bind("totalMinor", order.getTotalAmount().amountMinor())
+                .bind("totalCurrency", order.getTotalAmount().currency().getCurrencyCode())
+                .bind("createdAt", order.getCreatedAt())
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    // moves the order only if it is still in the expected status, returns the rows changed
+    public Mono<Long> updateStatus(Long id, OrderStatus from, OrderStatus to) {
+        return databaseClient.sql("update orders set status = '" + to.name() + "' where id = :id and status = '" + from.name() + "'")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<OrderView> findView(Long id) {
+        return databaseClient.sql(VIEW + " where o.id = :id")
+                .bind("id", id)
+                .map(OrderRepository::toView)
+                .one();
+    }
+
+    // keyset page, newest first: rows strictly after the (createdAt, id) cursor
+    public Flux<OrderView> findPage(OrderQuery query, OrderCursor after, int limit) {
+        StringBuilder sql = new StringBuilder(VIEW).append(" where 1 = 1");
+        Map<String, Object> params = new LinkedHashMap<>();
+        if (query.userId() != null) {
+            sql.append(" and o.user_id = :userId");
+            params.put("userId", query.userId());
+        }
+        if (query.status() != null) {
+            sql.append(" and o.status = '").append(query.status().name()).append("'");
+        }
+        if (query.from() != null) {
+            sql.append(" and o.created_at >= :from");
+            params.put("from", query.from());
+        }
+        if (query.to() != null) {
+            sql.append(" and o.created_at < :to");
+            params.put("to", query.to());
+        }
+        if (after != null) {
+            sql.append(" and (o.created_at < :cursorCreatedAt or (o.created_at = :cursorCreatedAt and o.id < :cursorId))");
+            params.put("cursorCreatedAt", after.createdAt());
+            params.put("cursorId", after.id());
+        }
+        sql.append(" order by o.created_at desc, o.id desc limit ").append(limit);
+        return databaseClient.sql(sql.toString()).bindValues(params).map(OrderRepository::toView).all();
+    }
+
+    private static OrderView toView(Readable row) {
+        return new OrderView(row.get("id", Long.class), row.get("user_id", String.class),
+                row.get("product_id", Long.class), row.get("product_name", String.class),
+                row.get("quantity", Integer.class),
+                Money.ofMinor(row.get("total_minor", Long.class), Currency.getInstance(row.get("total_currency", String.class))),
+                OrderStatus.valueOf(row.get("status", String.class)), row.get("created_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.order.reactive.repository;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ids from orders_seq, handed out the way Hibernate's pooled optimizer in the order module does:
+// each database value V reserves the block (V - 50, V], so both stacks can insert into orders
+// without colliding. On MySQL the sequence is a one-row table.
+@Component
+public class PooledSequences {
+
+    // must match allocationSize on the order module's Order
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final class Block {
+        long next = 1;
+        long last = 0;
+    }
+
+    private final DatabaseClient databaseClient;
+    // a block is fetched in its own short transaction, so the sequence row is not locked until the order commits
+    private final TransactionalOperator newTransaction;
+    private final boolean tables;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public PooledSequences(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager,
+                           ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        this.newTransaction = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        this.tables = "MySQL".equalsIgnoreCase(connectionFactory.getMetadata().getName());
+    }
+
+    public Mono<Long> next(String sequence) {
+        Block block = blocks.computeIfAbsent(sequence, name -> new Block());
+        synchronized (block) {
+            if (block.next <= block.last) {
+                return Mono.just(block.next++);
+            }
+        }
+        return fetch(sequence).map(value -> {
+            long first = Math.max(value - ALLOCATION_SIZE + 1, 1);
+            synchronized (block) {
+                // another caller may have refilled meanwhile, then the rest of this block goes unused
+                if (block.next > block.last) {
+                    block.next = first + 1;
+                    block.last = value;
+                }
+            }
+            return first;
+        });
+    }
+
+    private Mono<Long> fetch(String sequence) {
+        if (!tables) {
+            return databaseClient.sql("select next value for " + sequence)
+                    .map(row -> row.get(0, Long.class))
+                    .one();
+        }
+        return databaseClient.sql("select next_val from " + sequence + " for update")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(value -> databaseClient.sql("update " + sequence + " set next_val = :next where next_val = :value")
+                        .bind("next", value + ALLOCATION_SIZE)
+                        .bind("value", value)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(value))
+                .as(newTransaction::transactional);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.order.reactive.repository;
+
+import com.ecommerce.order.reactive.model.Product;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProductRepository extends R2dbcRepository<Product, Long> {
+
+    // atomic check-and-decrement, returns 0 when the row does not have enough stock.
+    // bumps the version so a concurrent update in the order module cannot overwrite the new stock
+    @Modifying
+    @Query("update products set stock = stock - :quantity, updated_date = :now, version = version + 1 " +
+            "where id = :id and stock >= :quantity")
+    Mono<Integer> decrementStock(Long id, int quantity, LocalDateTime now);
+
+    @Modifying
+    @Query("update products set stock = stock + :quantity, updated_date = :now, version = version + 1 where id = :id")
+    Mono<Integer> incrementStock(Long id, int quantity, LocalDateTime now);
+
+    // returns 0 when the product is gone or no longer at the expected version
+    @Modifying
+    @Query("update products set name = :name, price_minor = :priceMinor, price_currency = :priceCurrency, " +
+            "stock = :stock, updated_date = :now, version = version + 1 where id = :id and version = :version")
+    Mono<Integer> update(Long id, String name, long priceMinor, String priceCurrency, int stock, long version,
+                         LocalDateTime now);
+
+    @Query("select stock from products where id = :id")
+    Mono<Integer> findStockById(Long id);
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.order.reactive.repository;
+
+import com.ecommerce.order.reactive.model.User;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface UserRepository extends R2dbcRepository<User, Long> {
+
+    // written out with an alias: derived queries qualify columns as user.user_id, which H2 reads as the USER function
+    @Query("select u.id, u.user_id, u.name, u.email, u.password from user u where u.user_id = :userId")
+    Mono<User> findByUserId(String userId);
+
+    @Query("select count(*) > 0 from user u where u.user_id = :userId")
+    Mono<Boolean> existsByUserId(String userId);
+
+    @Query("select u.id, u.user_id, u.name, u.email, u.password from user u")
+    Flux<User> findAllUsers();
+}
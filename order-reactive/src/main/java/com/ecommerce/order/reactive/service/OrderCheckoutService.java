@@ -0,0 +1,11 @@
+package com.ecommerce.order.reactive.service;
+
+import com.ecommerce.order.reactive.dto.OrderView;
+import reactor.core.publisher.Mono;
+
+public interface OrderCheckoutService {
+
+    // reserve -> pay -> confirm or release, emits the final order
+    Mono<OrderView> checkout(Long productId, String userId, int quantity);
+
+}
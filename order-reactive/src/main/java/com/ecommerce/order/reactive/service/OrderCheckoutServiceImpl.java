@@ -0,0 +1,44 @@
+package com.ecommerce.order.reactive.service;
+
+import com.ecommerce.order.common.exception.PaymentFailedException;
+import com.ecommerce.order.reactive.dto.OrderView;
+import com.ecommerce.order.reactive.payment.PaymentGateway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+public class OrderCheckoutServiceImpl implements OrderCheckoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderCheckoutServiceImpl.class);
+
+    private final OrderService orderService;
+    private final PaymentGateway paymentGateway;
+
+    public OrderCheckoutServiceImpl(OrderService orderService, PaymentGateway paymentGateway) {
+        this.orderService = orderService;
+        this.paymentGateway = paymentGateway;
+    }
+
+    @Override
+    public Mono<OrderView> checkout(Long productId, String userId, int quantity) {
+        // step 1: short transaction, stock reserved and order PENDING
+        return orderService.placeOrder(productId, userId, quantity)
+                .flatMap(this::payAndSettle);
+    }
+
+    private Mono<OrderView> payAndSettle(OrderView pending) {
+        // step 2: payment runs outside any transaction, no connection is held while it is in flight
+        return paymentGateway.charge(pending)
+                .onErrorResume(ex -> {
+                    log.warn("Payment call failed for order {}", pending.id(), ex);
+                    return Mono.just(false);
+                })
+                // step 3: short transaction again, confirm or give the stock back
+                .flatMap(paid -> paid
+                        ? orderService.confirmOrder(pending)
+                        : orderService.releaseOrder(pending)
+                        .then(Mono.error(new PaymentFailedException())));
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.order.reactive.service;
+
+import com.ecommerce.order.reactive.dto.OrderPage;
+import com.ecommerce.order.reactive.dto.OrderQuery;
+import com.ecommerce.order.reactive.dto.OrderView;
+import reactor.core.publisher.Mono;
+
+public interface OrderService {
+    // reserves stock and records a PENDING order, payment happens afterwards
+    Mono<OrderView> placeOrder(Long productId, String userId, int quantity);
+    // both only act on an order that is still PENDING, so a repeat is a no-op
+    Mono<OrderView> confirmOrder(OrderView pending);
+    Mono<OrderView> releaseOrder(OrderView pending);
+    Mono<OrderPage> getOrders(OrderQuery query, String cursor, int limit);
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.order.reactive.service;
+
+import com.ecommerce.order.common.dto.OrderCursor;
+import com.ecommerce.order.common.exception.InsufficientStockException;
+import com.ecommerce.order.common.exception.ResourceNotFoundException;
+import com.ecommerce.order.common.exception.UserNotFoundException;
+import com.ecommerce.order.common.model.OrderEventType;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.reactive.dto.OrderPage;
+import com.ecommerce.order.reactive.dto.OrderQuery;
+import com.ecommerce.order.reactive.dto.OrderView;
+import com.ecommerce.order.reactive.events.OrderEventOutbox;
+import com.ecommerce.order.reactive.model.Order;
+import com.ecommerce.order.reactive.repository.OrderRepository;
+import com.ecommerce.order.reactive.repository.PooledSequences;
+import com.ecommerce.order.reactive.repository.ProductRepository;
+import com.ecommerce.order.reactive.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class OrderServiceImpl implements OrderService {
+
+    static final int MAX_PAGE_SIZE = 500;
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final PooledSequences sequences;
+    private final OrderEventOutbox orderEventOutbox;
+
+    public OrderServiceImpl(OrderRepository orderRepository, ProductRepository productRepository,
+                            UserRepository userRepository, PooledSequences sequences,
+                            OrderEventOutbox orderEventOutbox) {
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.sequences = sequences;
+        this.orderEventOutbox = orderEventOutbox;
+    }
+
+    @Override
+    @Transactional
+    public Mono<OrderView> placeOrder(Long productId, String userId, int quantity) {
+        if (userId == null || userId.trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("User ID cannot be null or empty"));
+        }
+        if (quantity <= 0) {
+            return Mono.error(new IllegalArgumentException("Quantity must be greater than zero"));
+        }
+        return userRepository.existsByUserId(userId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found: " + userId)))
+                .then(productRepository.findById(productId))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Product not found with id: " + productId)))
+                // the conditional update is the only stock check, no lock is held while deciding
+                .flatMap(product -> productRepository.decrementStock(productId, quantity, LocalDateTime.now())
+                        .flatMap(updated -> updated == 1 ? Mono.just(product) : insufficientStock(productId)))
+                .flatMap(product -> sequences.next("orders_seq").flatMap(id -> {
+                    Order order = new Order(id, userId, productId, quantity, product.getPrice().times(quantity),
+                            OrderStatus.PENDING, LocalDateTime.now());
+                    OrderView view = new OrderView(id, userId, productId, product.getName(), quantity,
+                            product.getPrice().times(quantity), OrderStatus.PENDING, order.getCreatedAt());
+                    return orderRepository.insert(order)
+                            .then(orderEventOutbox.record(OrderEventType.CREATED, view))
+                            .thenReturn(view);
+                }));
+    }
+
+    @Override
+    @Transactional
+    public Mono<OrderView> confirmOrder(OrderView pending) {
+        return orderRepository.updateStatus(pending.id(), OrderStatus.PENDING, OrderStatus.PLACED)
+                .flatMap(moved -> {
+                    if (moved == 0) {
+                        return findOrder(pending.id());
+                    }
+                    // the order module's relay adds the PLACED event to the sales aggregates
+                    OrderView placed = pending.withStatus(OrderStatus.PLACED);
+                    return orderEventOutbox.record(OrderEventType.PLACED, placed).thenReturn(placed);
+                });
+    }
+
+    @Override
+    @Transactional
+    public Mono<OrderView> releaseOrder(OrderView pending) {
+        // only a pending order still holds stock, so a repeated release gives nothing back
+        return orderRepository.updateStatus(pending.id(), OrderStatus.PENDING, OrderStatus.FAILED)
+                .flatMap(moved -> {
+                    if (moved == 0) {
+                        return findOrder(pending.id());
+                    }
+                    OrderView failed = pending.withStatus(OrderStatus.FAILED);
+                    return productRepository.incrementStock(pending.productId(), pending.quantity(), LocalDateTime.now())
+                            .then(orderEventOutbox.record(OrderEventType.FAILED, failed))
+                            .thenReturn(failed);
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<OrderPage> getOrders(OrderQuery query, String cursor, int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        OrderCursor after;
+        try {
+            after = cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+
+        // fetch one extra row to know whether another page exists
+        return orderRepository.findPage(query, after, limit + 1).collectList().map(rows -> {
+            if (rows.size() <= limit) {
+                return new OrderPage(rows, null);
+            }
+            List<OrderView> page = rows.subList(0, limit);
+            OrderView last = page.get(limit - 1);
+            return new OrderPage(page, new OrderCursor(last.createdAt(), last.id()).encode());
+        });
+    }
+
+    private <T> Mono<T> insufficientStock(Long productId) {
+        return productRepository.findStockById(productId)
+                .defaultIfEmpty(0)
+                .flatMap(left -> Mono.error(new InsufficientStockException("Only " + left + " items left in stock")));
+    }
+
+    private Mono<OrderView> findOrder(Long orderId) {
+        return orderRepository.findView(orderId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Order not found with id: " + orderId)));
+    }
+}
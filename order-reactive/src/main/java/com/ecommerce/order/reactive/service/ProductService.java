@@ -0,0 +1,18 @@
+package com.ecommerce.order.reactive.service;
+
+import com.ecommerce.order.reactive.dto.ProductRequest;
+import com.ecommerce.order.reactive.dto.ProductView;
+import com.ecommerce.order.reactive.model.Product;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ProductService {
+
+    Mono<Product> saveProduct(ProductRequest request);
+
+    // fails with VersionConflictException unless the product is still at expectedVersion
+    Mono<Product> updateProduct(Long id, ProductRequest request, long expectedVersion);
+
+    Flux<ProductView> getAllProducts();
+
+}
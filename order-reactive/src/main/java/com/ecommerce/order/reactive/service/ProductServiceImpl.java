@@ -0,0 +1,53 @@
+package com.ecommerce.order.reactive.service;
+
+import com.ecommerce.order.common.exception.ResourceNotFoundException;
+import com.ecommerce.order.common.exception.VersionConflictException;
+import com.ecommerce.order.reactive.dto.ProductRequest;
+import com.ecommerce.order.reactive.dto.ProductView;
+import com.ecommerce.order.reactive.model.Product;
+import com.ecommerce.order.reactive.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Service
+public class ProductServiceImpl implements ProductService {
+
+    private final ProductRepository productRepo;
+
+    public ProductServiceImpl(ProductRepository productRepo) {
+        this.productRepo = productRepo;
+    }
+
+    @Override
+    public Mono<Product> saveProduct(ProductRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        return productRepo.save(new Product(request.name(), request.price(), request.stock(), now, now));
+    }
+
+    // no catalog cache here: the order module's cache may show the old name and price until its entry expires
+    @Override
+    @Transactional
+    public Mono<Product> updateProduct(Long id, ProductRequest request, long expectedVersion) {
+        // every order bumps the version, so a stock value read before one of them is refused instead of
+        // overwriting its decrement
+        return productRepo.update(id, request.name(), request.price().amountMinor(),
+                        request.price().currency().getCurrencyCode(), request.stock(), expectedVersion, LocalDateTime.now())
+                .flatMap(updated -> updated == 0
+                        ? productRepo.findById(id)
+                                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Product with ID " + id + " not found.")))
+                                .flatMap(current -> Mono.<Product>error(new VersionConflictException("Product " + id
+                                        + " is at version " + current.getVersion() + ", not " + expectedVersion
+                                        + "; read it again before updating")))
+                        : productRepo.findById(id));
+    }
+
+    @Override
+    public Flux<ProductView> getAllProducts() {
+        return productRepo.findAll()
+                .map(product -> new ProductView(product.getId(), product.getName(), product.getPrice(), product.getStock()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.order.reactive.service;
+
+import com.ecommerce.order.reactive.dto.UserView;
+import com.ecommerce.order.reactive.model.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface UserService {
+
+    Mono<User> saveUser(User user);
+
+    Flux<UserView> getAllUsers();
+
+    Mono<UserView> getUser(String userId);
+
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.order.reactive.service;
+
+import com.ecommerce.order.reactive.dto.UserView;
+import com.ecommerce.order.reactive.model.User;
+import com.ecommerce.order.reactive.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class UserServiceImpl implements UserService {
+
+    private final UserRepository userRepository;
+
+    public UserServiceImpl(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Mono<User> saveUser(User user) {
+        return userRepository.save(user);
+    }
+
+    @Override
+    public Flux<UserView> getAllUsers() {
+        return userRepository.findAllUsers().map(UserView::from);
+    }
+
+    @Override
+    public Mono<UserView> getUser(String userId) {
+        return userRepository.findByUserId(userId).map(UserView::from);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.order.reactive.controller;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.reactive.model.Product;
+import com.ecommerce.order.reactive.model.User;
+import com.ecommerce.order.reactive.payment.PaymentGateway;
+import com.ecommerce.order.reactive.repository.ProductRepository;
+import com.ecommerce.order.reactive.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// the whole reserve -> pay -> confirm/release flow over HTTP, against H2 built by the order module's migrations
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("h2")
+public class OrderControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DatabaseClient databaseClient;
+    @MockitoBean
+    private PaymentGateway paymentGateway;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        productId = productRepository.save(new Product("Laptop", Money.of("999.99"), 5, now, now)).block().getId();
+        userRepository.findByUserId("u1")
+                .switchIfEmpty(userRepository.save(new User("u1", "User One", "u1@example.com", "secret")))
+                .block();
+    }
+
+    @Test
+    void testPlaceOrder_PaidOrderIsPlaced() {
+        when(paymentGateway.charge(any())).thenReturn(Mono.just(true));
+
+        webTestClient.post().uri("/order")
+                .bodyValue(Map.of("productId", productId, "userId", "u1", "quantity", 2))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("PLACED")
+                .jsonPath("$.productName").isEqualTo("Laptop")
+                .jsonPath("$.totalAmount.amount").isEqualTo(1999.98);
+
+        assertEquals(3, productRepository.findStockById(productId).block());
+        // the order module's relay adds it to the sales aggregates from the outbox
+        assertEquals(1L, databaseClient.sql("select count(*) from order_outbox o join orders r on r.id = o.order_id " +
+                        "where o.type = 'PLACED' and r.product_id = :id")
+                .bind("id", productId).map(row -> row.get(0, Long.class)).one().block());
+    }
+
+    @Test
+    void testPlaceOrder_DeclinedPaymentGivesStockBack() {
+        when(paymentGateway.charge(any())).thenReturn(Mono.just(false));
+
+        webTestClient.post().uri("/order")
+                .bodyValue(Map.of("productId", productId, "userId", "u1", "quantity", 2))
+                .exchange()
+                .expectStatus().isEqualTo(402);
+
+        assertEquals(5, productRepository.findStockById(productId).block());
+        assertEquals("FAILED", databaseClient.sql("select status from orders where product_id = :id")
+                .bind("id", productId).map(row -> row.get(0, String.class)).one().block());
+    }
+
+    @Test
+    void testPlaceOrder_NotEnoughStock() {
+        webTestClient.post().uri("/order")
+                .bodyValue(Map.of("productId", productId, "userId", "u1", "quantity", 6))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.detail").isEqualTo("Only 5 items left in stock");
+    }
+
+    @Test
+    void testGetOrders_BadLimitOrCursorIsBadRequest() {
+        webTestClient.get().uri("/order?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Limit must be between 1 and 500");
+
+        webTestClient.get().uri("/order?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Invalid cursor: not-a-cursor");
+    }
+}
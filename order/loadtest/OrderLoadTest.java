@@ -0,0 +1,127 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+// Closed-loop load generator for POST /order, run with: java loadtest/OrderLoadTest.java [key=value ...]
+// Keeps `concurrency` requests in flight until `requests` are done, then prints throughput and latency.
+// batch=N sends N order lines per request to POST /orders/batch instead.
+// retry-after=true makes a client that got a 429 wait for its Retry-After before sending again.
+public class OrderLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new TreeMap<>(Map.of(
+                "url", "http://localhost:8080/order",
+                "requests", "2000",
+                "concurrency", "200",
+                "products", "1",
+                "user", "pragnesh001",
+                "quantity", "1",
+                "batch", "0",
+                "retry-after", "false"));
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            opts.put(kv[0], kv[1]);
+        }
+
+        int total = Integer.parseInt(opts.get("requests"));
+        int concurrency = Integer.parseInt(opts.get("concurrency"));
+        int products = Integer.parseInt(opts.get("products"));
+        int batch = Integer.parseInt(opts.get("batch"));
+        boolean honorRetryAfter = Boolean.parseBoolean(opts.get("retry-after"));
+        URI uri = URI.create(batch > 0 && !opts.get("url").endsWith("/batch")
+                ? opts.get("url").replace("/order", "/orders/batch") : opts.get("url"));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latenciesNanos = new long[total];
+        int[] statusBySlot = new int[total];
+        AtomicInteger done = new AtomicInteger();
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[total];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            inFlight.acquire();
+            String body = batch > 0 ? batchBody(i, batch, products, opts) : line(1 + i % products, opts);
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            int slot = i;
+            long sent = System.nanoTime();
+            calls[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, ex) -> {
+                        latenciesNanos[slot] = System.nanoTime() - sent;
+                        int status = ex == null ? response.statusCode() : -1;
+                        statusBySlot[slot] = status;
+                        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                        done.incrementAndGet();
+                        long waitSeconds = honorRetryAfter && status == 429
+                                ? response.headers().firstValueAsLong("Retry-After").orElse(1) : 0;
+                        if (waitSeconds > 0) {
+                            CompletableFuture.delayedExecutor(waitSeconds, TimeUnit.SECONDS).execute(inFlight::release);
+                        } else {
+                            inFlight.release();
+                        }
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(calls).join();
+        long elapsed = System.nanoTime() - start;
+
+        // per status before the sort below loses which latency belongs to which response
+        Map<Integer, long[]> latenciesByStatus = new TreeMap<>();
+        for (int status : new TreeMap<>(statuses).keySet()) {
+            latenciesByStatus.put(status, IntStream.range(0, total).filter(i -> statusBySlot[i] == status)
+                    .mapToLong(i -> latenciesNanos[i]).sorted().toArray());
+        }
+        Arrays.sort(latenciesNanos);
+        System.out.printf("requests=%d concurrency=%d products=%d%n", done.get(), concurrency, products);
+        System.out.printf("throughput=%.1f req/s%n", done.get() / (elapsed / 1e9));
+        if (batch > 0) {
+            System.out.printf("order lines=%.1f lines/s%n", (double) done.get() * batch / (elapsed / 1e9));
+        }
+        System.out.printf("latency p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms%n",
+                percentile(latenciesNanos, 50), percentile(latenciesNanos, 95),
+                percentile(latenciesNanos, 99), latenciesNanos[latenciesNanos.length - 1] / 1e6);
+        System.out.println("status counts (-1 = transport error): " + new TreeMap<>(statuses));
+        if (latenciesByStatus.size() > 1) {
+            latenciesByStatus.forEach((status, sorted) -> System.out.printf("  %d: p50=%.1fms p99=%.1fms%n",
+                    status, percentile(sorted, 50), percentile(sorted, 99)));
+        }
+    }
+
+    private static String line(int productId, Map<String, String> opts) {
+        return "{\"productId\":" + productId + ",\"userId\":\"" + opts.get("user")
+                + "\",\"quantity\":" + opts.get("quantity") + "}";
+    }
+
+    private static String batchBody(int request, int batch, int products, Map<String, String> opts) {
+        StringBuilder body = new StringBuilder("[");
+        for (int j = 0; j < batch; j++) {
+            if (j > 0) {
+                body.append(',');
+            }
+            body.append(line(1 + (request * batch + j) % products, opts));
+        }
+        return body.append(']').toString();
+    }
+
+    private static double percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
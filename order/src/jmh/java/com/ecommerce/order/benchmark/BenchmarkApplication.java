@@ -0,0 +1,64 @@
+package com.ecommerce.order.benchmark;
+
+import com.ecommerce.order.OrderManagementApplication;
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.model.Product;
+import com.ecommerce.order.model.User;
+import com.ecommerce.order.repository.ProductRepository;
+import com.ecommerce.order.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Boots the application without a web server against an in-memory H2, so benchmarks run offline
+final class BenchmarkApplication {
+
+    static final String USER_ID = "bench-user";
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String database) {
+        return run(database,
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN");
+    }
+
+    // application.properties plus the profile with its own logging, only the database is swapped for H2
+    static ConfigurableApplicationContext start(String database, String profile) {
+        return run(database,
+                "--spring.profiles.active=" + profile,
+                "--spring.main.banner-mode=off");
+    }
+
+    private static ConfigurableApplicationContext run(String database, String... settings) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password="));
+        args.addAll(List.of(settings));
+        // passed as command line arguments so they override application.properties
+        return new SpringApplicationBuilder(OrderManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+    }
+
+    // products get ids 1..count, stock high enough to never run out during a run
+    static List<Long> seed(ConfigurableApplicationContext context, int products, int stock) {
+        LocalDateTime now = LocalDateTime.now();
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            ids.add(productRepository.save(new Product("Product " + i, Money.ofMinor((100 + i) * 100L, Money.DEFAULT_CURRENCY), stock, now, now)).getId());
+        }
+        context.getBean(UserRepository.class).save(new User(USER_ID, "Bench", "bench@example.com", "123456"));
+        return ids;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.order.benchmark;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Time per item to reserve and confirm a five-item checkout: five single orders vs one cart order.
+// Payment is left out, the single orders would also need five payments instead of one.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CartCheckoutBenchmark {
+
+    private static final int ITEMS = 5;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private List<Long> productIds;
+    private Map<Long, Integer> cart;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start("cart-checkout");
+        orderService = context.getBean(OrderService.class);
+        productIds = BenchmarkApplication.seed(context, ITEMS, Integer.MAX_VALUE / 2);
+        cart = new LinkedHashMap<>();
+        productIds.forEach(id -> cart.put(id, 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void singleOrders(Blackhole blackhole) {
+        for (Long productId : productIds) {
+            Order order = orderService.placeOrder(productId, BenchmarkApplication.USER_ID, 1);
+            blackhole.consume(orderService.confirmOrder(order.getId()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public Order cartOrder() {
+        Order order = orderService.placeCartOrder(BenchmarkApplication.USER_ID, cart);
+        return orderService.confirmOrder(order.getId());
+    }
+}
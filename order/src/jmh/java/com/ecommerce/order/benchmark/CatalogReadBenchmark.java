@@ -0,0 +1,84 @@
+package com.ecommerce.order.benchmark;
+
+import com.ecommerce.order.cache.CatalogEntry;
+import com.ecommerce.order.cache.ProductCatalogCache;
+import com.ecommerce.order.dto.ProductView;
+import com.ecommerce.order.model.Product;
+import com.ecommerce.order.repository.ProductRepository;
+import com.ecommerce.order.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Product lookups on the order path and GET /product, cached against the plain repository reads
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class CatalogReadBenchmark {
+
+    @Param({"100"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductCatalogCache catalogCache;
+    private ProductRepository productRepository;
+    private ProductService productService;
+    private Long[] productIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start("catalog");
+        catalogCache = context.getBean(ProductCatalogCache.class);
+        productRepository = context.getBean(ProductRepository.class);
+        productService = context.getBean(ProductService.class);
+        productIds = BenchmarkApplication.seed(context, products, 1000).toArray(new Long[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    private Long anyProduct() {
+        return productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+    }
+
+    @Benchmark
+    public Optional<CatalogEntry> findCached() {
+        return catalogCache.find(anyProduct());
+    }
+
+    @Benchmark
+    public Optional<Product> findEntity() {
+        return productRepository.findById(anyProduct());
+    }
+
+    @Benchmark
+    public List<ProductView> listCached() {
+        return productService.getAllProducts();
+    }
+
+    @Benchmark
+    public List<ProductView> listViews() {
+        return productRepository.findAllViews();
+    }
+}
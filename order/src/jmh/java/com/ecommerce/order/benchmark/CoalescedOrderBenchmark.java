@@ -0,0 +1,65 @@
+package com.ecommerce.order.benchmark;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.service.OrderCoalescer;
+import com.ecommerce.order.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// Every thread orders the same product: placeOrder one transaction per order vs OrderCoalescer
+// placing whatever arrived within the window as one batch. Change the thread count with -t.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CoalescedOrderBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderCoalescer coalescer;
+    private Long productId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start("coalesced-order");
+        orderService = context.getBean(OrderService.class);
+        productId = BenchmarkApplication.seed(context, 1, Integer.MAX_VALUE / 2).get(0);
+        // built here rather than switched on in the context, so both benchmarks share one setup
+        coalescer = new OrderCoalescer(orderService, new SimpleMeterRegistry(), true, 1, 100, 4);
+        coalescer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws InterruptedException {
+        coalescer.stop();
+        context.close();
+    }
+
+    @Benchmark
+    public Order placeOrder() {
+        return orderService.placeOrder(productId, BenchmarkApplication.USER_ID, 1);
+    }
+
+    @Benchmark
+    public Order coalesced() {
+        return coalescer.place(productId, BenchmarkApplication.USER_ID, 1).join();
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.order.benchmark;
+
+import com.ecommerce.order.common.exception.InsufficientStockException;
+import com.ecommerce.order.common.exception.PaymentFailedException;
+import com.ecommerce.order.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// A failed order from throw to JSON bytes: the old map body with a stack-capturing exception
+// vs. stackless exceptions and Problem records. Run with -prof gc for gc.alloc.rate.norm (bytes per failure).
+// depth is how many frames sit above the throw; a request thread in Spring MVC has well over a hundred.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ErrorResponseBenchmark {
+
+    // the payment failure as it was before stackless exceptions
+    static class StackTracePaymentFailedException extends RuntimeException {
+        StackTracePaymentFailedException(String message) {
+            super(message);
+        }
+    }
+
+    @Param({"10", "150"})
+    public int depth;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Benchmark
+    public byte[] mapBodyWithStackTrace() throws JsonProcessingException {
+        try {
+            throwAt(depth, () -> new StackTracePaymentFailedException(PaymentFailedException.DEFAULT_MESSAGE));
+            return null;
+        } catch (StackTracePaymentFailedException ex) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("timestamp", LocalDateTime.now());
+            body.put("status", HttpStatus.PAYMENT_REQUIRED.value());
+            body.put("error", "Payment Failed");
+            body.put("message", ex.getMessage());
+            return objectMapper.writeValueAsBytes(body);
+        }
+    }
+
+    @Benchmark
+    public byte[] paymentFailedProblem() throws JsonProcessingException {
+        try {
+            throwAt(depth, PaymentFailedException::new);
+            return null;
+        } catch (PaymentFailedException ex) {
+            return objectMapper.writeValueAsBytes(handler.handlePaymentFailed(ex).getBody());
+        }
+    }
+
+    @Benchmark
+    public byte[] insufficientStockProblem() throws JsonProcessingException {
+        try {
+            throwAt(depth, () -> new InsufficientStockException("Only " + depth + " items left in stock"));
+            return null;
+        } catch (InsufficientStockException ex) {
+            return objectMapper.writeValueAsBytes(handler.handleStockError(ex).getBody());
+        }
+    }
+
+    private interface Failure {
+        RuntimeException create();
+    }
+
+    private static void throwAt(int depth, Failure failure) {
+        if (depth == 0) {
+            throw failure.create();
+        }
+        throwAt(depth - 1, failure);
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.order.benchmark;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.dto.OrderPage;
+import com.ecommerce.order.dto.OrderView;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON for one GET /order page, as the OrderView projection and as the entities the old listing returned
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OrderSerializationBenchmark {
+
+    @Param({"50", "500"})
+    public int pageSize;
+
+    // configured like the mapper Spring Boot gives the controllers
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private OrderPage page;
+    private List<Order> entities;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> products = new ArrayList<>();
+        for (long p = 1; p <= 5; p++) {
+            Product product = new Product("Product " + p, Money.ofMinor((100 + p) * 100L, Money.DEFAULT_CURRENCY), 1000, now, now);
+            product.setId(p);
+            products.add(product);
+        }
+        entities = new ArrayList<>();
+        List<OrderView> views = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Product product = products.get(i % products.size());
+            Order order = new Order("user" + (i % 7), 1, product.getPrice(), OrderStatus.PLACED, now.minusSeconds(i), product);
+            order.setId((long) i + 1);
+            entities.add(order);
+            views.add(OrderView.from(order));
+        }
+        page = new OrderPage(views, "bmV4dA");
+    }
+
+    @Benchmark
+    public byte[] views() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] entities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+}
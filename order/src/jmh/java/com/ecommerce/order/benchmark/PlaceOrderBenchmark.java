@@ -0,0 +1,61 @@
+package com.ecommerce.order.benchmark;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// OrderService.placeOrder with every thread ordering from the same 1..K products.
+// Contention is on the product rows; change the thread count with -t.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class PlaceOrderBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Long[] productIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start("place-order");
+        orderService = context.getBean(OrderService.class);
+        List<Long> ids = BenchmarkApplication.seed(context, products, Integer.MAX_VALUE / 2);
+        productIds = ids.toArray(new Long[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order placeOrder() {
+        Long productId = productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+        return orderService.placeOrder(productId, BenchmarkApplication.USER_ID, 1);
+    }
+}
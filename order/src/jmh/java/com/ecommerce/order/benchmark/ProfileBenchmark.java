@@ -0,0 +1,70 @@
+package com.ecommerce.order.benchmark;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// OrderService.placeOrder under the default configuration (SQL logged and formatted) and the prod profile.
+// H2 has no driver statement cache, so this shows the logging and Hibernate part of the difference only.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ProfileBenchmark {
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Long[] productIds;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void start() throws FileNotFoundException {
+        // the logs still get written, just to a file instead of flooding the JMH output
+        console = System.out;
+        System.setOut(new PrintStream(new FileOutputStream("target/profile-benchmark-" + profile + ".log"), false));
+        context = BenchmarkApplication.start("profile-" + profile, profile);
+        orderService = context.getBean(OrderService.class);
+        List<Long> ids = BenchmarkApplication.seed(context, 16, Integer.MAX_VALUE / 2);
+        productIds = ids.toArray(new Long[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        System.out.close();
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public Order placeOrder() {
+        Long productId = productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+        return orderService.placeOrder(productId, BenchmarkApplication.USER_ID, 1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.order.admission;
+
+// AIMD limit on requests in flight. A request that completed within the target latency while the
+// limit was at least half used adds 1/limit (about +1 per limit's worth of requests); one slower
+// than the target cuts the limit by the backoff factor, at most once per target interval so a
+// burst of slow completions counts as one congestion signal.
+final class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoff;
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos, double backoff,
+                               long now) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.backoff = backoff;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecrease = now - targetLatencyNanos;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    synchronized void release(long latencyNanos, long now) {
+        int used = inFlight--;
+        if (latencyNanos > targetLatencyNanos) {
+            if (now - lastDecrease >= targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * backoff);
+                lastDecrease = now;
+            }
+        } else if (used * 2 >= (int) limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    // the request never ran, its latency says nothing about the system
+    synchronized void cancel() {
+        inFlight--;
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+}
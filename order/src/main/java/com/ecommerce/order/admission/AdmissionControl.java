@@ -0,0 +1,135 @@
+package com.ecommerce.order.admission;
+
+import com.ecommerce.order.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Decides before any work is done whether an order request may run: a token bucket per user and
+// per product caps the rate of a single client or a single hot product, and an adaptive limit caps
+// how many requests are reserving stock at once. A rejected request gets a 429 straight away
+// instead of queueing for a stock row lock or a pooled connection until it times out.
+@Component
+public class AdmissionControl {
+
+    private static final Permit NO_OP = new Permit(null, 0);
+
+    private final boolean enabled;
+    private final double userBurst;
+    private final double userRate;
+    private final double productBurst;
+    private final double productRate;
+    private final Cache<String, TokenBucket> userBuckets;
+    private final Cache<Long, TokenBucket> productBuckets;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter userRejections;
+    private final Counter productRejections;
+    private final Counter concurrencyRejections;
+
+    public AdmissionControl(MeterRegistry meterRegistry,
+                            @Value("${order.admission.enabled:false}") boolean enabled,
+                            @Value("${order.admission.user.rate-per-second:5}") double userRate,
+                            @Value("${order.admission.user.burst:10}") double userBurst,
+                            @Value("${order.admission.product.rate-per-second:200}") double productRate,
+                            @Value("${order.admission.product.burst:400}") double productBurst,
+                            @Value("${order.admission.concurrency.initial-limit:20}") int initialLimit,
+                            @Value("${order.admission.concurrency.min-limit:2}") int minLimit,
+                            @Value("${order.admission.concurrency.max-limit:200}") int maxLimit,
+                            @Value("${order.admission.concurrency.target-latency-ms:250}") long targetLatencyMs,
+                            @Value("${order.admission.concurrency.backoff:0.9}") double backoff) {
+        this.enabled = enabled;
+        this.userRate = userRate;
+        this.userBurst = userBurst;
+        this.productRate = productRate;
+        this.productBurst = productBurst;
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                TimeUnit.MILLISECONDS.toNanos(targetLatencyMs), backoff, System.nanoTime());
+        // an idle bucket is full again after burst / rate seconds, dropping it then loses nothing
+        this.userBuckets = Caffeine.newBuilder()
+                .expireAfterAccess(refillTime(userBurst, userRate))
+                .build();
+        this.productBuckets = Caffeine.newBuilder()
+                .expireAfterAccess(refillTime(productBurst, productRate))
+                .build();
+        this.userRejections = meterRegistry.counter("order.admission.rejected", "reason", "user");
+        this.productRejections = meterRegistry.counter("order.admission.rejected", "reason", "product");
+        this.concurrencyRejections = meterRegistry.counter("order.admission.rejected", "reason", "concurrency");
+        Gauge.builder("order.admission.limit", limiter, AdaptiveConcurrencyLimiter::limit).register(meterRegistry);
+        Gauge.builder("order.admission.in_flight", limiter, AdaptiveConcurrencyLimiter::inFlight).register(meterRegistry);
+    }
+
+    // productId may be null, e.g. for a cart; release the permit once the guarded work is done
+    public Permit admit(String userId, Long productId) {
+        if (!enabled) {
+            return NO_OP;
+        }
+        // the concurrency check takes no token, so a request it turns away costs the client nothing
+        if (!limiter.tryAcquire()) {
+            concurrencyRejections.increment();
+            throw new TooManyRequestsException("Too many orders in progress, please retry", 1);
+        }
+        long now = System.nanoTime();
+        TokenBucket user = null;
+        if (userId != null) {
+            user = userBuckets.get(userId, id -> new TokenBucket(userBurst, userRate, now));
+            long wait = user.tryAcquire(now);
+            if (wait > 0) {
+                limiter.cancel();
+                userRejections.increment();
+                throw new TooManyRequestsException("Too many orders for user " + userId + ", please retry", seconds(wait));
+            }
+        }
+        if (productId != null) {
+            long wait = productBuckets.get(productId, id -> new TokenBucket(productBurst, productRate, now)).tryAcquire(now);
+            if (wait > 0) {
+                if (user != null) {
+                    user.refund();
+                }
+                limiter.cancel();
+                productRejections.increment();
+                throw new TooManyRequestsException("Too many orders for product " + productId + ", please retry", seconds(wait));
+            }
+        }
+        return new Permit(this, now);
+    }
+
+    private void complete(long admittedAt) {
+        long now = System.nanoTime();
+        limiter.release(now - admittedAt, now);
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private static Duration refillTime(double burst, double rate) {
+        return Duration.ofMillis(Math.max(1000, (long) Math.ceil(burst / rate * 1000)));
+    }
+
+    // one per admitted request; releasing it twice is harmless
+    public static final class Permit {
+
+        private final AdmissionControl owner;
+        private final long admittedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(AdmissionControl owner, long admittedAt) {
+            this.owner = owner;
+            this.admittedAt = admittedAt;
+        }
+
+        public void release() {
+            if (owner != null && released.compareAndSet(false, true)) {
+                owner.complete(admittedAt);
+            }
+        }
+    }
+}
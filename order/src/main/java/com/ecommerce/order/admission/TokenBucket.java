@@ -0,0 +1,33 @@
+package com.ecommerce.order.admission;
+
+// Refilled lazily from the elapsed time on each call, so an idle bucket costs nothing.
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double capacity, double tokensPerSecond, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1e9;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    // 0 when a token was taken, otherwise the nanos until the next one is available
+    synchronized long tryAcquire(long now) {
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+
+    // gives back a token taken for a request that was rejected further on
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.order.analytics;
+
+import com.ecommerce.order.dto.ProductSalesView;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sales of the last minutes per product, in memory only: they start empty after a restart and
+// each instance counts the PLACED events its own relay published. Fed by SalesAggregates after commit.
+@Component
+public class RollingSales {
+
+    private record Key(long productId, Currency currency) {
+    }
+
+    // one product's rings, guarded by the entry itself
+    private static final class Entry {
+        final SalesRing fine = new SalesRing(SalesWindow.FINE_SLOTS, SalesWindow.FINE_BUCKET_MILLIS);
+        final SalesRing coarse = new SalesRing(SalesWindow.COARSE_SLOTS, SalesWindow.COARSE_BUCKET_MILLIS);
+    }
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    public void add(long productId, Currency currency, long orders, long units, long revenueMinor, long nowMillis) {
+        Entry entry = entries.computeIfAbsent(new Key(productId, currency), key -> new Entry());
+        synchronized (entry) {
+            entry.fine.add(nowMillis, orders, units, revenueMinor);
+            entry.coarse.add(nowMillis, orders, units, revenueMinor);
+        }
+    }
+
+    // products that sold within the window, best sellers first. product names are left to the caller
+    public List<ProductSalesView> snapshot(SalesWindow window, long nowMillis) {
+        List<ProductSalesView> sales = new ArrayList<>();
+        long[] totals = new long[3];
+        for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+            totals[0] = totals[1] = totals[2] = 0;
+            Entry entry = e.getValue();
+            synchronized (entry) {
+                (window.coarse ? entry.coarse : entry.fine).sum(nowMillis, window.buckets, totals);
+            }
+            if (totals[0] > 0) {
+                sales.add(new ProductSalesView(e.getKey().productId(), null, totals[0], totals[1], totals[2],
+                        e.getKey().currency()));
+            }
+        }
+        sales.sort(Comparator.comparingLong((ProductSalesView view) -> view.revenue().amountMinor()).reversed()
+                .thenComparing(ProductSalesView::productId));
+        return sales;
+    }
+}
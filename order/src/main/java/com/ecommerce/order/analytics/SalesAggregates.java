@@ -0,0 +1,127 @@
+package com.ecommerce.order.analytics;
+
+import com.ecommerce.order.common.model.OrderEventType;
+import com.ecommerce.order.dto.OrderEvent;
+import com.ecommerce.order.dto.OrderLineView;
+import com.ecommerce.order.dto.OrderView;
+import com.ecommerce.order.events.OrderEventSink;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Adds relayed PLACED events to product_sales and user_daily_sales. Runs in the relay transaction that marks
+// the events published, so each event is counted exactly once, and the confirming transaction never waits
+// on a hot product's row. The totals trail the orders by about one relay interval.
+@Component
+public class SalesAggregates implements OrderEventSink {
+
+    // an upsert per key; Spring Data has no batched upsert, JdbcTemplate sends each table's rows as one JDBC batch
+    private static final String UPSERT_PRODUCT =
+            "insert into product_sales (product_id, currency, orders, units, revenue_minor, updated_at) " +
+            "values (?, ?, ?, ?, ?, ?) on duplicate key update " +
+            "orders = orders + ?, units = units + ?, revenue_minor = revenue_minor + ?, updated_at = ?";
+    private static final String UPSERT_USER_DAY =
+            "insert into user_daily_sales (user_id, sales_day, currency, orders, units, revenue_minor, updated_at) " +
+            "values (?, ?, ?, ?, ?, ?, ?) on duplicate key update " +
+            "orders = orders + ?, units = units + ?, revenue_minor = revenue_minor + ?, updated_at = ?";
+
+    private record ProductKey(long productId, Currency currency) {
+    }
+
+    private record UserDayKey(String userId, LocalDate day, Currency currency) {
+    }
+
+    // rows are upserted in key order, so relays on two instances always lock them in the same order
+    private static final Comparator<ProductKey> PRODUCT_ORDER = Comparator.comparingLong(ProductKey::productId)
+            .thenComparing(key -> key.currency().getCurrencyCode());
+    private static final Comparator<UserDayKey> USER_DAY_ORDER = Comparator.comparing(UserDayKey::userId)
+            .thenComparing(UserDayKey::day)
+            .thenComparing(key -> key.currency().getCurrencyCode());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RollingSales rollingSales;
+
+    public SalesAggregates(JdbcTemplate jdbcTemplate, RollingSales rollingSales) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollingSales = rollingSales;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(List<OrderEvent> events) {
+        List<OrderView> placed = new ArrayList<>();
+        for (OrderEvent event : events) {
+            if (event.type() == OrderEventType.PLACED) {
+                sales(event.order(), placed);
+            }
+        }
+        record(placed);
+    }
+
+    private void record(List<OrderView> placed) {
+        if (placed.isEmpty()) {
+            return;
+        }
+        // orders for the same product or user and day collapse into one row update
+        Map<ProductKey, long[]> products = new TreeMap<>(PRODUCT_ORDER);
+        Map<UserDayKey, long[]> userDays = new TreeMap<>(USER_DAY_ORDER);
+        for (OrderView order : placed) {
+            Currency currency = order.totalAmount().currency();
+            if (order.productId() != null) {
+                add(products.computeIfAbsent(new ProductKey(order.productId(), currency), key -> new long[3]), order);
+            }
+            if (order.userId() != null && order.createdAt() != null) {
+                add(userDays.computeIfAbsent(new UserDayKey(order.userId(), order.createdAt().toLocalDate(), currency),
+                        key -> new long[3]), order);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> productRows = new ArrayList<>(products.size());
+        products.forEach((key, totals) -> productRows.add(new Object[]{key.productId(), key.currency().getCurrencyCode(),
+                totals[0], totals[1], totals[2], now, totals[0], totals[1], totals[2], now}));
+        List<Object[]> userDayRows = new ArrayList<>(userDays.size());
+        userDays.forEach((key, totals) -> userDayRows.add(new Object[]{key.userId(), key.day(),
+                key.currency().getCurrencyCode(), totals[0], totals[1], totals[2], now,
+                totals[0], totals[1], totals[2], now}));
+        jdbcTemplate.batchUpdate(UPSERT_PRODUCT, productRows);
+        jdbcTemplate.batchUpdate(UPSERT_USER_DAY, userDayRows);
+
+        // the windows live in memory and cannot roll back, so they only see committed relay batches
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long nowMillis = System.currentTimeMillis();
+                products.forEach((key, totals) ->
+                        rollingSales.add(key.productId(), key.currency(), totals[0], totals[1], totals[2], nowMillis));
+            }
+        });
+    }
+
+    // the order counts once for its user and day, a cart's lines once each for their product
+    private static void sales(OrderView order, List<OrderView> sales) {
+        sales.add(order);
+        for (OrderLineView line : order.lines()) {
+            sales.add(new OrderView(order.id(), null, line.productId(), line.productName(), line.quantity(),
+                    line.lineTotal(), order.status(), order.createdAt()));
+        }
+    }
+
+    private static void add(long[] totals, OrderView order) {
+        totals[0]++;
+        totals[1] += order.quantity();
+        totals[2] += order.totalAmount().amountMinor();
+    }
+}
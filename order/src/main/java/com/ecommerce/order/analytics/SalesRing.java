@@ -0,0 +1,50 @@
+package com.ecommerce.order.analytics;
+
+import java.util.Arrays;
+
+// Sales counted in fixed-width time buckets kept in a ring of primitive slots.
+// A slot is reset when a newer bucket lands on it, so nothing needs to expire old data. Not thread safe.
+final class SalesRing {
+
+    private final long bucketMillis;
+    // the bucket number (time / bucketMillis) each slot currently holds, -1 while unused
+    private final long[] buckets;
+    private final long[] orders;
+    private final long[] units;
+    private final long[] revenueMinor;
+
+    SalesRing(int slots, long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = new long[slots];
+        this.orders = new long[slots];
+        this.units = new long[slots];
+        this.revenueMinor = new long[slots];
+        Arrays.fill(buckets, -1);
+    }
+
+    void add(long nowMillis, long orders, long units, long revenueMinor) {
+        long bucket = nowMillis / bucketMillis;
+        int slot = (int) (bucket % buckets.length);
+        if (buckets[slot] != bucket) {
+            buckets[slot] = bucket;
+            this.orders[slot] = 0;
+            this.units[slot] = 0;
+            this.revenueMinor[slot] = 0;
+        }
+        this.orders[slot] += orders;
+        this.units[slot] += units;
+        this.revenueMinor[slot] += revenueMinor;
+    }
+
+    // adds the newest count buckets, the current partial one included, to totals {orders, units, revenueMinor}
+    void sum(long nowMillis, int count, long[] totals) {
+        long newest = nowMillis / bucketMillis;
+        for (int slot = 0; slot < buckets.length; slot++) {
+            if (buckets[slot] > newest - count && buckets[slot] <= newest) {
+                totals[0] += orders[slot];
+                totals[1] += units[slot];
+                totals[2] += revenueMinor[slot];
+            }
+        }
+    }
+}
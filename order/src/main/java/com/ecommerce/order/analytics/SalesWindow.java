@@ -0,0 +1,39 @@
+package com.ecommerce.order.analytics;
+
+// The rolling windows RollingSales answers for. Each is summed from whole buckets,
+// so it covers between its length and its length plus one bucket.
+public enum SalesWindow {
+
+    ONE_MINUTE("1m", false, 12),
+    FIVE_MINUTES("5m", false, 60),
+    ONE_HOUR("1h", true, 60);
+
+    // 60 buckets of 5 seconds and 60 buckets of a minute
+    static final int FINE_SLOTS = 60;
+    static final long FINE_BUCKET_MILLIS = 5_000;
+    static final int COARSE_SLOTS = 60;
+    static final long COARSE_BUCKET_MILLIS = 60_000;
+
+    private final String label;
+    final boolean coarse;
+    final int buckets;
+
+    SalesWindow(String label, boolean coarse, int buckets) {
+        this.label = label;
+        this.coarse = coarse;
+        this.buckets = buckets;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public static SalesWindow of(String label) {
+        for (SalesWindow window : values()) {
+            if (window.label.equals(label)) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("Window must be one of 1m, 5m, 1h");
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.order.cache;
+
+import com.ecommerce.order.common.model.Money;
+
+// the slow-changing part of a product; stock is deliberately not cached
+public record CatalogEntry(Long id, String name, Money price) {
+}
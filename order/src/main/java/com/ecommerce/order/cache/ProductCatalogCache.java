@@ -0,0 +1,113 @@
+package com.ecommerce.order.cache;
+
+import com.ecommerce.order.dto.ProductStock;
+import com.ecommerce.order.dto.ProductView;
+import com.ecommerce.order.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Caches product name and price by id plus a snapshot of the whole catalog.
+// Stock is always read from the database, so a cached entry can never let an order oversell.
+@Component
+public class ProductCatalogCache {
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, CatalogEntry> entries;
+    private final long ttlNanos;
+    private final Counter snapshotHits;
+    private final Counter snapshotMisses;
+
+    // bumped on every invalidation so a load that raced with an update is not published
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public ProductCatalogCache(ProductRepository productRepository, MeterRegistry meterRegistry,
+                               @Value("${catalog.cache.max-size:10000}") long maxSize,
+                               @Value("${catalog.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.productRepository = productRepository;
+        // the TTL bounds how long an update made on another instance stays invisible here
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "productCatalog");
+        this.snapshotHits = meterRegistry.counter("product.catalog.snapshot", "result", "hit");
+        this.snapshotMisses = meterRegistry.counter("product.catalog.snapshot", "result", "miss");
+    }
+
+    public Optional<CatalogEntry> find(Long productId) {
+        // loads are atomic per key, and invalidate waits for a running load, so no stale entry survives an update
+        return Optional.ofNullable(entries.get(productId, id -> productRepository.findCatalogEntryById(id).orElse(null)));
+    }
+
+    // catalog from the snapshot, stock read fresh in one narrow query
+    public List<ProductView> listProducts() {
+        Map<Long, Integer> stock = productRepository.findAllStocks().stream()
+                .collect(Collectors.toMap(ProductStock::id, ProductStock::stock));
+        List<ProductView> products = new ArrayList<>();
+        for (CatalogEntry entry : catalog()) {
+            Integer left = stock.get(entry.id());
+            if (left != null) {
+                products.add(new ProductView(entry.id(), entry.name(), entry.price(), left));
+            }
+        }
+        return products;
+    }
+
+    // call from save/update paths, waits for the surrounding transaction to commit
+    public void invalidate(Long productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(productId);
+                }
+            });
+        } else {
+            evict(productId);
+        }
+    }
+
+    private void evict(Long productId) {
+        generation.incrementAndGet();
+        snapshot = null;
+        if (productId != null) {
+            entries.invalidate(productId);
+        }
+    }
+
+    private List<CatalogEntry> catalog() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt < ttlNanos) {
+            snapshotHits.increment();
+            return current.entries;
+        }
+        snapshotMisses.increment();
+        long seen = generation.get();
+        List<CatalogEntry> loaded = productRepository.findAllCatalogEntries();
+        if (generation.get() == seen) {
+            snapshot = new Snapshot(List.copyOf(loaded), System.nanoTime());
+        }
+        return loaded;
+    }
+
+    private record Snapshot(List<CatalogEntry> entries, long loadedAt) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.order.cache;
+
+import com.ecommerce.order.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Remembers userIds known to exist so the order path can skip the user lookup.
+// Only positives are cached: users are never deleted, and a user created on another instance
+// must not be rejected here, so a miss always falls back to the database.
+@Component
+public class UserExistenceCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExistenceCache.class);
+
+    private final UserRepository userRepository;
+    private final Cache<String, Boolean> known;
+    private final int maxSize;
+
+    public UserExistenceCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                              @Value("${user.cache.max-size:100000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.known = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, known, "userExistence");
+    }
+
+    public boolean exists(String userId) {
+        if (known.getIfPresent(userId) != null) {
+            return true;
+        }
+        if (userRepository.existsByUserId(userId)) {
+            known.put(userId, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    // cached ids are answered in memory, the rest in a single IN query
+    public Set<String> existing(Collection<String> userIds) {
+        Set<String> found = new HashSet<>();
+        Set<String> misses = new HashSet<>();
+        for (String userId : userIds) {
+            if (known.getIfPresent(userId) != null) {
+                found.add(userId);
+            } else {
+                misses.add(userId);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (String userId : userRepository.findExistingUserIds(misses)) {
+                known.put(userId, Boolean.TRUE);
+                found.add(userId);
+            }
+        }
+        return found;
+    }
+
+    public void remember(String userId) {
+        known.put(userId, Boolean.TRUE);
+    }
+
+    // newest users first, they are the ones most likely to order
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        List<String> userIds = userRepository.findRecentUserIds(Limit.of(maxSize));
+        userIds.forEach(this::remember);
+        log.info("Warmed user existence cache with {} users", userIds.size());
+    }
+}
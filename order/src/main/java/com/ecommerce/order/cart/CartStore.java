@@ -0,0 +1,81 @@
+package com.ecommerce.order.cart;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Server-side carts, productId -> quantity per user, held in memory only.
+// An idle cart expires after the TTL; a restart or another instance starts with empty carts,
+// nothing is reserved until checkout so losing one never strands stock.
+@Component
+public class CartStore {
+
+    private final Cache<String, Map<Long, Integer>> carts;
+    private final int maxLines;
+
+    public CartStore(MeterRegistry meterRegistry,
+                     @Value("${order.cart.ttl-minutes:30}") long ttlMinutes,
+                     @Value("${order.cart.max-size:100000}") long maxSize,
+                     @Value("${order.cart.max-lines:100}") int maxLines) {
+        this.maxLines = maxLines;
+        this.carts = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, carts, "carts");
+    }
+
+    // copy of the cart in the order products were added, empty when there is none
+    public Map<Long, Integer> items(String userId) {
+        Map<Long, Integer> cart = carts.getIfPresent(userId);
+        if (cart == null) {
+            return Map.of();
+        }
+        synchronized (cart) {
+            return new LinkedHashMap<>(cart);
+        }
+    }
+
+    public Map<Long, Integer> add(String userId, Long productId, int quantity) {
+        Map<Long, Integer> cart = carts.get(userId, id -> new LinkedHashMap<>());
+        synchronized (cart) {
+            if (!cart.containsKey(productId) && cart.size() >= maxLines) {
+                throw new IllegalArgumentException("Cart cannot hold more than " + maxLines + " products");
+            }
+            cart.merge(productId, quantity, Math::addExact);
+            return new LinkedHashMap<>(cart);
+        }
+    }
+
+    public Map<Long, Integer> remove(String userId, Long productId) {
+        Map<Long, Integer> cart = carts.getIfPresent(userId);
+        if (cart == null) {
+            return Map.of();
+        }
+        synchronized (cart) {
+            cart.remove(productId);
+            return new LinkedHashMap<>(cart);
+        }
+    }
+
+    public void clear(String userId) {
+        carts.invalidate(userId);
+    }
+
+    // after a checkout: items added while the payment ran stay for the next one
+    public void clearIfUnchanged(String userId, Map<Long, Integer> checkedOut) {
+        carts.asMap().computeIfPresent(userId, (id, cart) -> {
+            synchronized (cart) {
+                return cart.equals(checkedOut) ? null : cart;
+            }
+        });
+    }
+}
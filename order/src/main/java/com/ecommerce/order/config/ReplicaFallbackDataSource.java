@@ -0,0 +1,55 @@
+package com.ecommerce.order.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Connections for read-only transactions: from the replica, or from the primary while the replica is unreachable.
+// After a failure the replica is skipped for retry-after-ms, so reads do not each wait for a connect timeout.
+public class ReplicaFallbackDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaFallbackDataSource.class);
+
+    private final DataSource primary;
+    private final long retryAfterNanos;
+    private final Counter fallbacks;
+    private volatile boolean down;
+    private volatile long downAt;
+
+    public ReplicaFallbackDataSource(DataSource replica, DataSource primary, long retryAfterMs, MeterRegistry meterRegistry) {
+        super(replica);
+        this.primary = primary;
+        this.retryAfterNanos = TimeUnit.MILLISECONDS.toNanos(retryAfterMs);
+        this.fallbacks = meterRegistry.counter("datasource.replica.fallbacks");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!down || System.nanoTime() - downAt >= retryAfterNanos) {
+            try {
+                Connection connection = obtainTargetDataSource().getConnection();
+                if (down) {
+                    log.info("Read replica is back, routing read-only transactions to it again");
+                    down = false;
+                }
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                // Hikari reports a pool that cannot start as a RuntimeException
+                if (!down) {
+                    log.warn("Read replica unavailable, reading from the primary", e);
+                }
+                downAt = System.nanoTime();
+                down = true;
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+}
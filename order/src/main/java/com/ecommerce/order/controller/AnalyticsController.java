@@ -0,0 +1,41 @@
+package com.ecommerce.order.controller;
+
+import com.ecommerce.order.analytics.SalesWindow;
+import com.ecommerce.order.dto.ProductSalesView;
+import com.ecommerce.order.dto.UserDailySalesView;
+import com.ecommerce.order.service.SalesAnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+public class AnalyticsController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    public AnalyticsController(SalesAnalyticsService salesAnalyticsService) {
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
+    @GetMapping("/analytics/products")
+    public List<ProductSalesView> getProductSales() {
+        return salesAnalyticsService.getProductSales();
+    }
+
+    @GetMapping("/analytics/products/recent")
+    public List<ProductSalesView> getRecentProductSales(@RequestParam(defaultValue = "5m") String window) {
+        return salesAnalyticsService.getRecentProductSales(SalesWindow.of(window));
+    }
+
+    @GetMapping("/analytics/users/daily")
+    public List<UserDailySalesView> getUserDailySales(@RequestParam(required = false) String userId,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                      @RequestParam(defaultValue = "100") int limit) {
+        return salesAnalyticsService.getUserDailySales(userId, from, to, limit);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.order.controller;
+
+import com.ecommerce.order.admission.AdmissionControl;
+import com.ecommerce.order.dto.CartView;
+import com.ecommerce.order.dto.OrderView;
+import com.ecommerce.order.service.CartService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/cart/{userId}")
+public class CartController {
+    static class CartItemRequest {
+        public Long productId;
+        public int quantity;
+    }
+
+    private final CartService cartService;
+    private final AdmissionControl admissionControl;
+
+    public CartController(CartService cartService, AdmissionControl admissionControl) {
+        this.cartService = cartService;
+        this.admissionControl = admissionControl;
+    }
+
+    @GetMapping
+    public CartView getCart(@PathVariable String userId) {
+        return cartService.getCart(userId);
+    }
+
+    @PostMapping("/items")
+    public CartView addItem(@PathVariable String userId, @RequestBody CartItemRequest request) {
+        return cartService.addItem(userId, request.productId, request.quantity);
+    }
+
+    @DeleteMapping("/items/{productId}")
+    public CartView removeItem(@PathVariable String userId, @PathVariable Long productId) {
+        return cartService.removeItem(userId, productId);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clearCart(@PathVariable String userId) {
+        cartService.clearCart(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // request thread is released while the payment is in flight
+    @PostMapping("/checkout")
+    public CompletableFuture<OrderView> checkout(@PathVariable String userId) {
+        // a cart spans products, so only the user's bucket and the concurrency limit apply
+        AdmissionControl.Permit permit = admissionControl.admit(userId, null);
+        try {
+            return cartService.checkout(userId);
+        } finally {
+            permit.release();
+        }
+    }
+}
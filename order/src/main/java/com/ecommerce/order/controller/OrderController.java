@@ -1,11 +1,29 @@
 package com.ecommerce.order.controller;
 
-import com.ecommerce.order.model.Order;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.dto.BatchOrderResult;
+import com.ecommerce.order.dto.OrderLineRequest;
+import com.ecommerce.order.dto.OrderPage;
+import com.ecommerce.order.dto.OrderQuery;
+import com.ecommerce.order.dto.OrderView;
+import com.ecommerce.order.events.OrderEventStream;
+import com.ecommerce.order.service.OrderCheckoutService;
 import com.ecommerce.order.service.OrderService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 public class OrderController {
@@ -14,21 +32,77 @@ public class OrderController {
         public String userId;
         public int quantity;
     }
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+
     private final OrderService orderService;
+    private final OrderCheckoutService orderCheckoutService;
+    private final ObjectMapper objectMapper;
+    private final OrderEventStream orderEventStream;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderCheckoutService orderCheckoutService, ObjectMapper objectMapper,
+                           OrderEventStream orderEventStream) {
         this.orderService = orderService;
+        this.orderCheckoutService = orderCheckoutService;
+        this.objectMapper = objectMapper;
+        this.orderEventStream = orderEventStream;
     }
 
 
     @PostMapping("/order")
-    public Order placeOrder(@RequestBody OrderRequest request) {
-        return orderService.placeOrder(request.productId, request.userId, request.quantity);
+    public CompletableFuture<OrderView> placeOrder(@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                                  @RequestBody OrderRequest request) {
+        // request thread is released while the payment is in flight.
+        // admission control runs inside checkout, after a retry has had the chance to replay its stored response
+        return orderCheckoutService.checkout(idempotencyKey, request.productId, request.userId, request.quantity);
+    }
+
+    @PostMapping("/orders/batch")
+    public CompletableFuture<List<BatchOrderResult>> placeOrders(@RequestBody List<OrderLineRequest> lines) {
+        return orderCheckoutService.checkoutBatch(lines);
     }
 
     @GetMapping("/order")
-    public ResponseEntity<?> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<OrderPage> getAllOrders(@RequestParam(required = false) String userId,
+                                                  @RequestParam(required = false) OrderStatus status,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(orderService.getOrders(new OrderQuery(userId, status, from, to), cursor, limit));
+    }
+
+    // one JSON order per line, written as rows arrive from the database
+    @GetMapping("/order/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(required = false) String userId,
+                                                              @RequestParam(required = false) OrderStatus status,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        OrderQuery query = new OrderQuery(userId, status, from, to);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                int[] written = {0};
+                orderService.forEachOrder(query, order -> {
+                    try {
+                        generator.writeObject(order);
+                        if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeRaw('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    // live order changes; a reconnecting client sends Last-Event-ID and gets what it missed
+    @GetMapping(path = "/order/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return orderEventStream.subscribe(lastEventId);
     }
 
 
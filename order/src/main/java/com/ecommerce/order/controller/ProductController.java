@@ -1,9 +1,11 @@
 package com.ecommerce.order.controller;
 
+import com.ecommerce.order.common.exception.VersionRequiredException;
+import com.ecommerce.order.dto.ProductView;
 import com.ecommerce.order.model.Product;
-import com.ecommerce.order.repository.ProductRepository;
 import com.ecommerce.order.service.ProductServiceImpl;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -18,18 +20,16 @@ import java.util.Optional;
 @RestController
 public class ProductController {
 
-    private final ProductRepository productRepository;
     private final ProductServiceImpl productServiceImpl;
 
-    public ProductController(ProductRepository productRepository, ProductServiceImpl productServiceImpl) {
-        this.productRepository = productRepository;
+    public ProductController(ProductServiceImpl productServiceImpl) {
         this.productServiceImpl = productServiceImpl;
     }
 
 
     @GetMapping("/product")
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public List<ProductView> getAllProducts() {
+        return productServiceImpl.getAllProducts();
     }
 
     @PostMapping("/product")
@@ -44,11 +44,38 @@ public class ProductController {
         }
 
         Product saved = productServiceImpl.saveProduct(product);
-        return new ResponseEntity<>(saved, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(String.valueOf(saved.getVersion())).body(saved);
     }
 
+    // the stock in the body replaces the stored stock, so the client must name the version it read,
+    // as If-Match or as the version field, and gets a 409 if an order or another update came first
     @PutMapping("/product/{id}")
-    public ResponseEntity<?> updateProduct(@PathVariable Long id, @RequestBody Product updatedProduct) {
-        return ResponseEntity.ok(productServiceImpl.updateProduct(id, updatedProduct));
+    public ResponseEntity<?> updateProduct(@PathVariable Long id,
+                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           @RequestBody Product updatedProduct) {
+        long expectedVersion = expectedVersion(ifMatch, updatedProduct.getVersion());
+        Product saved = productServiceImpl.updateProduct(id, updatedProduct, expectedVersion);
+        return ResponseEntity.ok().eTag(String.valueOf(saved.getVersion())).body(saved);
+    }
+
+    private static long expectedVersion(String ifMatch, Long bodyVersion) {
+        if (ifMatch == null) {
+            if (bodyVersion == null) {
+                throw new VersionRequiredException("Send the product version you read as If-Match or as the version field");
+            }
+            return bodyVersion;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new VersionRequiredException("If-Match must be a product version, got " + ifMatch);
+        }
     }
 }
@@ -1,7 +1,8 @@
 package com.ecommerce.order.controller;
 
+import com.ecommerce.order.dto.UserView;
 import com.ecommerce.order.model.User;
-import com.ecommerce.order.repository.UserRepository;
+import com.ecommerce.order.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
@@ -13,16 +14,17 @@ import java.util.List;
 @RestController
 public class UserController {
 
-    private final UserRepository userRepository;
+    private final UserService userService;
 
-    public UserController(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public UserController(UserService userService) {
+        this.userService = userService;
     }
 
     @PostMapping("/user")
     public ResponseEntity<?> createUser(@RequestBody @Valid User user) {
         try {
-            return ResponseEntity.ok(userRepository.save(user));
+            User saved = userService.saveUser(user);
+            return ResponseEntity.ok(UserView.from(saved));
         } catch (DataIntegrityViolationException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body("User ID already exists.");
@@ -31,13 +33,13 @@ public class UserController {
 
 
     @GetMapping("/user")
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserView> getAllUsers() {
+        return userService.getAllUsers();
     }
 
     @GetMapping("/{userId}")
-    public User getUserByUserId(@PathVariable String userId) {
-        return userRepository.findByUserId(userId)
+    public UserView getUserByUserId(@PathVariable String userId) {
+        return userService.getUser(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with userId: " + userId));
     }
 }
@@ -0,0 +1,12 @@
+package com.ecommerce.order.dto;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderStatus;
+
+// outcome of one line of POST /orders/batch, error is set when the line was rejected
+public record BatchOrderResult(int line, Long orderId, OrderStatus status, Money totalAmount, String error) {
+
+    public static BatchOrderResult rejected(int line, String error) {
+        return new BatchOrderResult(line, null, OrderStatus.FAILED, null, error);
+    }
+}
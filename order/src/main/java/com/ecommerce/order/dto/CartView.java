@@ -0,0 +1,9 @@
+package com.ecommerce.order.dto;
+
+import com.ecommerce.order.common.model.Money;
+
+import java.util.List;
+
+// priced from the catalog cache when read, the cart itself only holds product ids and quantities
+public record CartView(String userId, List<OrderLineView> lines, int quantity, Money totalAmount) {
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.order.dto;
+
+import com.ecommerce.order.common.model.OrderEventType;
+
+import java.time.LocalDateTime;
+
+// id is the outbox row id, increasing, and doubles as the SSE event id
+public record OrderEvent(Long id, OrderEventType type, OrderView order, LocalDateTime occurredAt) {
+}
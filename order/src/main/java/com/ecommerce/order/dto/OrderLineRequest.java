@@ -0,0 +1,4 @@
+package com.ecommerce.order.dto;
+
+public record OrderLineRequest(Long productId, String userId, int quantity) {
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.order.dto;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.model.OrderLine;
+
+// a cart line or an order line: one product, its unit price and what the line adds up to
+public record OrderLineView(Long productId, String productName, int quantity, Money unitPrice, Money lineTotal) {
+
+    // the line's product must already be loaded
+    public static OrderLineView from(OrderLine line) {
+        return new OrderLineView(line.getProduct().getId(), line.getProduct().getName(), line.getQuantity(),
+                line.getUnitPrice(), line.getLineTotal());
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.order.dto;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record OrderPage(List<OrderView> orders, String nextCursor) {
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.order.dto;
+
+import com.ecommerce.order.common.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// optional filters for order listing and export, null means "any"; to is exclusive
+public record OrderQuery(String userId, OrderStatus status, LocalDateTime from, LocalDateTime to) {
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.order.dto;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.model.Order;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// read-side shape of an order: the product is flattened to its id and name.
+// A cart order has no product of its own, its products are in lines.
+public record OrderView(Long id, String userId, Long productId, String productName, int quantity,
+                        Money totalAmount, OrderStatus status, LocalDateTime createdAt,
+                        @JsonInclude(JsonInclude.Include.NON_EMPTY) List<OrderLineView> lines) {
+
+    public OrderView {
+        lines = lines == null ? List.of() : lines;
+    }
+
+    // used by the JPQL projections, which never fetch lines
+    public OrderView(Long id, String userId, Long productId, String productName, int quantity,
+                     Money totalAmount, OrderStatus status, LocalDateTime createdAt) {
+        this(id, userId, productId, productName, quantity, totalAmount, status, createdAt, List.of());
+    }
+
+    // the order's product must already be loaded, its lines are left alone
+    public static OrderView from(Order order) {
+        return new OrderView(order.getId(), order.getUserId(),
+                order.getProduct() == null ? null : order.getProduct().getId(),
+                order.getProduct() == null ? null : order.getProduct().getName(),
+                order.getQuantity(), order.getTotalAmount(), order.getStatus(), order.getCreatedAt());
+    }
+
+    public OrderView withStatus(OrderStatus status) {
+        return new OrderView(id, userId, productId, productName, quantity, totalAmount, status, createdAt, lines);
+    }
+
+    public OrderView withLines(List<OrderLineView> lines) {
+        return new OrderView(id, userId, productId, productName, quantity, totalAmount, status, createdAt, lines);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.order.dto;
+
+import com.ecommerce.order.common.model.Money;
+
+import java.util.Currency;
+
+// sales of one product, from the aggregate table or a rolling window
+public record ProductSalesView(Long productId, String productName, long orders, long units, Money revenue) {
+
+    public ProductSalesView(Long productId, String productName, long orders, long units, long revenueMinor,
+                            Currency currency) {
+        this(productId, productName, orders, units, Money.ofMinor(revenueMinor, currency));
+    }
+
+    public ProductSalesView withProductName(String productName) {
+        return new ProductSalesView(productId, productName, orders, units, revenue);
+    }
+}
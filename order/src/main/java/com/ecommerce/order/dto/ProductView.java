@@ -0,0 +1,6 @@
+package com.ecommerce.order.dto;
+
+import com.ecommerce.order.common.model.Money;
+
+public record ProductView(Long id, String name, Money price, int stock) {
+}
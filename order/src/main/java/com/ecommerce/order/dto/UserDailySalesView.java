@@ -0,0 +1,14 @@
+package com.ecommerce.order.dto;
+
+import com.ecommerce.order.common.model.Money;
+
+import java.time.LocalDate;
+import java.util.Currency;
+
+public record UserDailySalesView(String userId, LocalDate day, long orders, long units, Money revenue) {
+
+    public UserDailySalesView(String userId, LocalDate day, long orders, long units, long revenueMinor,
+                              Currency currency) {
+        this(userId, day, orders, units, Money.ofMinor(revenueMinor, currency));
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.order.dto;
+
+import com.ecommerce.order.model.User;
+
+// user without credentials, for anything returned over the API
+public record UserView(Long id, String userId, String name, String email) {
+
+    public static UserView from(User user) {
+        return new UserView(user.getId(), user.getUserId(), user.getName(), user.getEmail());
+    }
+}
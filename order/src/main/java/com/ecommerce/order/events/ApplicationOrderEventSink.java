@@ -0,0 +1,24 @@
+package com.ecommerce.order.events;
+
+import com.ecommerce.order.dto.OrderEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// In-process sink: each relayed event is published as a Spring application event,
+// so a component in this application can react with @EventListener(OrderEvent.class)
+@Component
+public class ApplicationOrderEventSink implements OrderEventSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationOrderEventSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void publish(List<OrderEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
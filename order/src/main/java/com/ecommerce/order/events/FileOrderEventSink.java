@@ -0,0 +1,44 @@
+package com.ecommerce.order.events;
+
+import com.ecommerce.order.dto.OrderEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Local sink: appends each event as one JSON line, for development and for tailing with other tools
+@Component
+@ConditionalOnProperty(name = "order.events.file-sink.path")
+public class FileOrderEventSink implements OrderEventSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileOrderEventSink(@Value("${order.events.file-sink.path}") String path, ObjectMapper objectMapper) throws IOException {
+        this.path = Path.of(path);
+        this.objectMapper = objectMapper;
+        Path dir = this.path.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+    }
+
+    @Override
+    public synchronized void publish(List<OrderEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OrderEvent event : events) {
+            lines.append(objectMapper.writeValueAsString(event)).append('\n');
+        }
+        try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.order.events;
+
+import com.ecommerce.order.common.model.OrderEventType;
+import com.ecommerce.order.dto.OrderEvent;
+import com.ecommerce.order.dto.OrderView;
+import com.ecommerce.order.model.OutboxEvent;
+import com.ecommerce.order.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes order events to the outbox table. Must join the transaction that changes the order,
+// so the event exists exactly when the change does.
+@Component
+public class OrderEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OrderEventOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OrderEventType type, OrderView order) {
+        outboxEventRepository.save(toOutbox(type, order, LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OrderEventType type, List<OrderView> orders) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(orders.size());
+        for (OrderView order : orders) {
+            events.add(toOutbox(type, order, now));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    public OrderEvent toEvent(OutboxEvent event) {
+        try {
+            return new OrderEvent(event.getId(), event.getType(),
+                    objectMapper.readValue(event.getPayload(), OrderView.class), event.getCreatedAt());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private OutboxEvent toOutbox(OrderEventType type, OrderView order, LocalDateTime now) {
+        try {
+            return new OutboxEvent(order.id(), type, objectMapper.writeValueAsString(order), now);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.order.events;
+
+import com.ecommerce.order.dto.OrderEvent;
+
+import java.util.List;
+
+// Destination for relayed order events. Delivery is at least once: a batch whose publish throws
+// is offered again, so a sink must tolerate seeing an event id twice.
+public interface OrderEventSink {
+
+    void publish(List<OrderEvent> events) throws Exception;
+
+}
@@ -0,0 +1,169 @@
+package com.ecommerce.order.events;
+
+import com.ecommerce.order.dto.OrderEvent;
+import com.ecommerce.order.model.OutboxEvent;
+import com.ecommerce.order.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Server-sent order events for GET /order/events.
+// Tails the published outbox rows with one query per poll for all subscribers, so every instance streams
+// every order whichever instance placed it. The cursor is the relay's publish_seq, which becomes visible in
+// the order it is handed out, so no event can commit behind a cursor that already passed it.
+// Polling and sending run on threads of their own: a slow client holds one sender, never the shared
+// scheduler the relay and the sweepers run on, and never the other subscribers.
+@Component
+public class OrderEventStream {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventStream.class);
+
+    private record Published(long seq, OrderEvent event) {
+    }
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderEventOutbox outbox;
+    private final long pollIntervalMs;
+    private final long timeoutMs;
+    private final int batchSize;
+    private final int sendThreads;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService poller;
+    private ExecutorService senders;
+
+    public OrderEventStream(OutboxEventRepository outboxEventRepository, OrderEventOutbox outbox,
+                            @Value("${order.events.stream.poll-interval-ms:500}") long pollIntervalMs,
+                            @Value("${order.events.stream.timeout-ms:1800000}") long timeoutMs,
+                            @Value("${order.events.stream.batch-size:1000}") int batchSize,
+                            @Value("${order.events.stream.send-threads:4}") int sendThreads) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outbox = outbox;
+        this.pollIntervalMs = pollIntervalMs;
+        this.timeoutMs = timeoutMs;
+        this.batchSize = batchSize;
+        this.sendThreads = sendThreads;
+    }
+
+    @PostConstruct
+    public void start() {
+        senders = Executors.newFixedThreadPool(sendThreads, daemon("order-event-sender"));
+        poller = Executors.newSingleThreadScheduledExecutor(daemon("order-event-poller"));
+        poller.scheduleWithFixedDelay(this::pollQuietly, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    // without a last event id the stream starts with the next new event
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter,
+                lastEventId != null ? lastEventId : outboxEventRepository.findLastPublishSeq());
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            // an exception would cancel the schedule
+            log.warn("Polling order events failed", e);
+        }
+    }
+
+    void poll() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long from = Long.MAX_VALUE;
+        for (Subscriber subscriber : subscribers) {
+            from = Math.min(from, subscriber.cursor);
+        }
+        List<OutboxEvent> rows = outboxEventRepository.findPublishedAfter(from, Limit.of(batchSize));
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Published> events = new ArrayList<>(rows.size());
+        for (OutboxEvent row : rows) {
+            events.add(new Published(row.getPublishSeq(), outbox.toEvent(row)));
+        }
+        for (Subscriber subscriber : subscribers) {
+            // a subscriber still busy with the last batch catches up from its cursor on a later poll
+            if (subscriber.sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(() -> send(subscriber, events));
+                } catch (RejectedExecutionException e) {
+                    subscriber.sending.set(false);
+                }
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, List<Published> events) {
+        try {
+            for (Published published : events) {
+                if (published.seq() > subscriber.cursor) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(published.seq()))
+                            .name(published.event().type().name())
+                            .data(published.event()));
+                    subscriber.cursor = published.seq();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // client went away, it resumes with Last-Event-ID
+            log.debug("Dropping order event subscriber", e);
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        // one send at a time per subscriber, so the cursor only moves forward
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long cursor;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
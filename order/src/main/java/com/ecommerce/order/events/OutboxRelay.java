@@ -0,0 +1,75 @@
+package com.ecommerce.order.events;
+
+import com.ecommerce.order.dto.OrderEvent;
+import com.ecommerce.order.model.OutboxEvent;
+import com.ecommerce.order.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Publishes unpublished outbox rows, oldest first, to every sink and marks them published.
+// Rows stay locked until the batch is marked, a failing sink rolls the batch back for the next run.
+// Marking numbers the batch in publish order, which the event stream follows.
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderEventOutbox outbox;
+    private final List<OrderEventSink> sinks;
+    private final int batchSize;
+    private final long retentionHours;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OrderEventOutbox outbox, List<OrderEventSink> sinks,
+                       @Value("${order.events.relay.batch-size:500}") int batchSize,
+                       @Value("${order.events.retention-hours:24}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outbox = outbox;
+        this.sinks = sinks;
+        this.batchSize = batchSize;
+        this.retentionHours = retentionHours;
+    }
+
+    @Scheduled(fixedDelayString = "${order.events.relay.interval-ms:500}")
+    @Transactional
+    public void relay() throws Exception {
+        List<OutboxEvent> rows = outboxEventRepository.findUnpublished(Limit.of(batchSize));
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<OrderEvent> events = new ArrayList<>(rows.size());
+        for (OutboxEvent row : rows) {
+            events.add(outbox.toEvent(row));
+        }
+        for (OrderEventSink sink : sinks) {
+            sink.publish(events);
+        }
+        // taken last, so relays on other instances only wait for the commit, not for the sinks
+        long seq = outboxEventRepository.lockLastPublishSeq();
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent row : rows) {
+            row.markPublished(++seq, now);
+        }
+        outboxEventRepository.updateLastPublishSeq(seq);
+        log.debug("Relayed {} order events", events.size());
+    }
+
+    // published rows are kept for a while so SSE clients can resume from Last-Event-ID
+    @Scheduled(fixedDelayString = "${order.events.purge-interval-ms:600000}")
+    @Transactional
+    public void purgePublished() {
+        int purged = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (purged > 0) {
+            log.debug("Purged {} published order events", purged);
+        }
+    }
+}
@@ -1,65 +1,103 @@
 package com.ecommerce.order.exception;
 
+import com.ecommerce.order.common.exception.InsufficientStockException;
+import com.ecommerce.order.common.exception.PaymentFailedException;
+import com.ecommerce.order.common.exception.Problem;
+import com.ecommerce.order.common.exception.ResourceNotFoundException;
+import com.ecommerce.order.common.exception.UserNotFoundException;
+import com.ecommerce.order.common.exception.VersionConflictException;
+import com.ecommerce.order.common.exception.VersionRequiredException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
-
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // responses whose detail never changes, built once
+    private static final ResponseEntity<Problem> CONCURRENT_UPDATE =
+            Problem.response(HttpStatus.CONFLICT, "Product was modified concurrently, please retry");
+    private static final ResponseEntity<Problem> PAYMENT_FAILED =
+            Problem.response(HttpStatus.PAYMENT_REQUIRED, PaymentFailedException.DEFAULT_MESSAGE);
+
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleNotFound(ResourceNotFoundException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.NOT_FOUND.value());
-        body.put("error", "Not Found");
-        body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+    public ResponseEntity<Problem> handleNotFound(ResourceNotFoundException ex) {
+        return Problem.response(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
     @ExceptionHandler(InsufficientStockException.class)
-    public ResponseEntity<Map<String, Object>> handleStockError(InsufficientStockException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
-        body.put("error", "Bad Request");
-        body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    public ResponseEntity<Problem> handleStockError(InsufficientStockException ex) {
+        return Problem.response(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Problem> handleConcurrentUpdate(OptimisticLockingFailureException ex) {
+        return CONCURRENT_UPDATE;
+    }
+
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<Problem> handleVersionConflict(VersionConflictException ex) {
+        return Problem.response(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(VersionRequiredException.class)
+    public ResponseEntity<Problem> handleVersionRequired(VersionRequiredException ex) {
+        return Problem.response(HttpStatus.PRECONDITION_REQUIRED, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<Problem> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        return Problem.response(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<Problem> handleIdempotencyKeyReuse(IdempotencyKeyReuseException ex) {
+        return Problem.response(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+
+    // malformed JSON, or a value Jackson rejects such as a price with more decimals than its currency
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Problem> handleUnreadable(HttpMessageNotReadableException ex) {
+        return Problem.response(HttpStatus.BAD_REQUEST, ex.getMostSpecificCause().getMessage());
+    }
+
+    // request values the services reject, such as a page limit out of range, a malformed cursor or an oversized batch
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Problem> handleIllegalArgument(IllegalArgumentException ex) {
+        return Problem.response(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGeneric(Exception ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        body.put("error", "Internal Server Error");
-        body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<Problem> handleGeneric(Exception ex) {
+        return Problem.response(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
     }
 
     @ExceptionHandler(PaymentFailedException.class)
-    public ResponseEntity<Map<String, Object>> handlePaymentFailed(PaymentFailedException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.PAYMENT_REQUIRED.value()); // 402
-        body.put("error", "Payment Failed");
-        body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.PAYMENT_REQUIRED);
+    public ResponseEntity<Problem> handlePaymentFailed(PaymentFailedException ex) {
+        // the common case by far, a replayed idempotent response may carry its own message
+        return PaymentFailedException.DEFAULT_MESSAGE.equals(ex.getMessage())
+                ? PAYMENT_FAILED
+                : Problem.response(HttpStatus.PAYMENT_REQUIRED, ex.getMessage());
     }
 
     @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleUserNotFound(UserNotFoundException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.NOT_FOUND.value());
-        body.put("error", "User Not Found");
-        body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+    public ResponseEntity<Problem> handleUserNotFound(UserNotFoundException ex) {
+        return Problem.response(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Problem> handleTooManyRequests(TooManyRequestsException ex) {
+        return Problem.response(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(),
+                HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Problem> handleServiceUnavailable(ServiceUnavailableException ex) {
+        return Problem.response(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
     }
 
 
@@ -0,0 +1,9 @@
+package com.ecommerce.order.exception;
+
+import com.ecommerce.order.common.exception.BusinessException;
+
+public class IdempotencyConflictException extends BusinessException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.order.exception;
+
+import com.ecommerce.order.common.exception.BusinessException;
+
+public class IdempotencyKeyReuseException extends BusinessException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
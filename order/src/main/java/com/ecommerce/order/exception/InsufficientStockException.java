@@ -1,7 +0,0 @@
-package com.ecommerce.order.exception;
-
-public class InsufficientStockException extends RuntimeException {
-    public InsufficientStockException(String message) {
-        super(message);
-    }
-}
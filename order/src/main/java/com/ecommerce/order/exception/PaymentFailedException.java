@@ -1,7 +0,0 @@
-package com.ecommerce.order.exception;
-
-public class PaymentFailedException extends RuntimeException {
-    public PaymentFailedException(String message) {
-        super(message);
-    }
-}
@@ -1,7 +0,0 @@
-package com.ecommerce.order.exception;
-
-public class ResourceNotFoundException extends RuntimeException {
-    public ResourceNotFoundException(String message) {
-        super(message);
-    }
-}
@@ -0,0 +1,11 @@
+package com.ecommerce.order.exception;
+
+import com.ecommerce.order.common.exception.BusinessException;
+
+// the instance is shutting down and took nothing, the client may retry against another one
+public class ServiceUnavailableException extends BusinessException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
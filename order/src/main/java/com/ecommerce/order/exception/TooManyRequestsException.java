@@ -0,0 +1,18 @@
+package com.ecommerce.order.exception;
+
+import com.ecommerce.order.common.exception.BusinessException;
+
+// rejected before any work was done, the client may retry after retryAfterSeconds
+public class TooManyRequestsException extends BusinessException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
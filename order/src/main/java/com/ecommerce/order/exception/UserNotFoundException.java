@@ -1,7 +0,0 @@
-package com.ecommerce.order.exception;
-
-public class UserNotFoundException extends RuntimeException {
-    public UserNotFoundException(String message) {
-        super(message);
-    }
-}
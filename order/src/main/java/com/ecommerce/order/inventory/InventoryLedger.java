@@ -0,0 +1,478 @@
+package com.ecommerce.order.inventory;
+
+import com.ecommerce.order.model.InventoryLedgerCheckpoint;
+import com.ecommerce.order.repository.InventoryLedgerCheckpointRepository;
+import com.ecommerce.order.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// In-memory stock for flash sales (order.stock.ledger.enabled).
+// Each product's stock is split over cells, one per stripe, and a reservation only locks the stripe of its thread,
+// so orders for one hot product no longer queue on its row. A cell never goes below zero; when the home cell is
+// short, all stripes are locked and the product's stock is pooled and spread again.
+// Every cell change is appended to its stripe's journal under the same lock, so a flush can seal the journal and
+// snapshot the cells stripe by stripe: the database holds the last snapshot and the segments after its checkpoint
+// hold everything after it. A flush runs every flush-interval-ms or once flush-threshold changes are waiting.
+// The ledger owns the stock while it is enabled, so every order for a product must go through one instance.
+@Component
+public class InventoryLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryLedger.class);
+    // longs per cell, keeps cells written under different stripes on different cache lines
+    private static final int PAD = 8;
+    private static final long TICK_MS = 10;
+
+    private final ProductRepository productRepository;
+    private final InventoryLedgerCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final String name;
+    private final long flushIntervalNanos;
+    private final long flushThreshold;
+    private final Path journalDir;
+    private final LedgerStripe[] stripes;
+    private final int mask;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // held while adding a loaded product and while taking a snapshot, so a snapshot never sees half a new product.
+    // only memory is touched under it: the database load and the journal file work happen outside.
+    // a ReentrantLock, not a monitor, so a virtual thread waiting on it does not pin its carrier
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final LongAdder unflushed = new LongAdder();
+
+    // flusher thread only, after start
+    private final List<Path> sealed = new ArrayList<>();
+    private long segmentSequence;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public InventoryLedger(ProductRepository productRepository, InventoryLedgerCheckpointRepository checkpointRepository,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                           @Value("${order.stock.ledger.enabled:false}") boolean enabled,
+                           @Value("${order.stock.ledger.name:default}") String name,
+                           @Value("${order.stock.ledger.cells:0}") int cellCount,
+                           @Value("${order.stock.ledger.flush-interval-ms:1000}") long flushIntervalMs,
+                           @Value("${order.stock.ledger.flush-threshold:10000}") long flushThreshold,
+                           @Value("${order.stock.ledger.journal-dir:data/inventory-ledger}") String journalDir,
+                           @Value("${order.stock.ledger.sync:false}") boolean sync) {
+        this.productRepository = productRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.name = name;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.flushThreshold = flushThreshold;
+        this.journalDir = Path.of(journalDir);
+        int cells = cellCount > 0 ? cellCount : Runtime.getRuntime().availableProcessors();
+        // round up to a power of two so the home stripe is a cheap mask
+        int size = Integer.highestOneBit(Math.max(1, cells - 1)) << 1;
+        this.stripes = new LedgerStripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new LedgerStripe(i, this.journalDir, sync);
+        }
+        this.mask = size - 1;
+        meterRegistry.gauge("order.stock.ledger.unflushed", unflushed, LongAdder::sum);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(journalDir);
+        recover();
+        for (LedgerStripe stripe : stripes) {
+            stripe.open(segmentSequence);
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "inventory-ledger-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // false when the product is unknown or does not have enough stock left.
+    // inside a transaction the stock comes back if that transaction rolls back
+    public boolean tryReserve(Long productId, int quantity) {
+        Entry entry = entry(productId);
+        if (entry == null || !take(entry, quantity)) {
+            return false;
+        }
+        onRollback(() -> give(entry, quantity));
+        return true;
+    }
+
+    public void release(Long productId, int quantity) {
+        Entry entry = entry(productId);
+        if (entry == null) {
+            return;
+        }
+        give(entry, quantity);
+        onRollback(() -> {
+            if (!take(entry, quantity)) {
+                log.warn("Could not take back {} of product {} after a rolled back release", quantity, productId);
+            }
+        });
+    }
+
+    // replaces the stock of a product, atomically with respect to reservations.
+    // inside a transaction only once it commits, a rolled back update leaves the stock alone
+    public void set(Long productId, int stock) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replace(productId, stock);
+                }
+            });
+        } else {
+            replace(productId, stock);
+        }
+    }
+
+    private void replace(Long productId, int stock) {
+        Entry entry = entry(productId);
+        if (entry == null) {
+            return;
+        }
+        lockAll();
+        try {
+            spread(entry, stock);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    // read without locks, exact only when nothing is reserving
+    public int available(Long productId) {
+        Entry entry = entry(productId);
+        return entry == null ? 0 : (int) total(entry);
+    }
+
+    // stock of products the ledger has loaded, the others are still current in the database
+    public OptionalInt peek(Long productId) {
+        Entry entry = productId == null ? null : entries.get(productId);
+        return entry == null ? OptionalInt.empty() : OptionalInt.of((int) total(entry));
+    }
+
+    private boolean take(Entry entry, long quantity) {
+        int home = probe();
+        LedgerStripe stripe = stripes[home];
+        stripe.lock.lock();
+        try {
+            if (entry.cells[home * PAD] >= quantity) {
+                change(stripe, entry, home, -quantity);
+                return true;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        // the home cell is short, pool all cells of the product
+        lockAll();
+        try {
+            long total = total(entry);
+            if (total < quantity) {
+                return false;
+            }
+            spread(entry, total - quantity);
+            return true;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    private void give(Entry entry, long quantity) {
+        int home = probe();
+        LedgerStripe stripe = stripes[home];
+        stripe.lock.lock();
+        try {
+            change(stripe, entry, home, quantity);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // callers hold every stripe lock
+    private void spread(Entry entry, long total) {
+        long base = Math.floorDiv(total, stripes.length);
+        long remainder = Math.floorMod(total, stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            long target = base + (i < remainder ? 1 : 0);
+            long delta = target - entry.cells[i * PAD];
+            if (delta != 0) {
+                change(stripes[i], entry, i, delta);
+            }
+        }
+    }
+
+    // callers hold the stripe lock. journaled first, a failed append leaves the cell untouched
+    private void change(LedgerStripe stripe, Entry entry, int cell, long delta) {
+        try {
+            stripe.append(entry.productId, delta);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal stock change of product " + entry.productId, e);
+        }
+        entry.cells[cell * PAD] += delta;
+        unflushed.increment();
+    }
+
+    private long total(Entry entry) {
+        long total = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            total += entry.cells[i * PAD];
+        }
+        return total;
+    }
+
+    private Entry entry(Long productId) {
+        if (productId == null) {
+            return null;
+        }
+        Entry entry = entries.get(productId);
+        if (entry != null) {
+            return entry;
+        }
+        // two threads may both load a new product, the first one added wins. a stock update commits before its
+        // set() comes through here, so whichever load is added, set() then spreads the new stock over it
+        Optional<Integer> stock = productRepository.findStockById(productId);
+        if (stock.isEmpty()) {
+            return null;
+        }
+        Entry loaded = newEntry(productId, stock.get(), stock.get());
+        snapshotLock.lock();
+        try {
+            entry = entries.putIfAbsent(productId, loaded);
+        } finally {
+            snapshotLock.unlock();
+        }
+        return entry != null ? entry : loaded;
+    }
+
+    private Entry newEntry(Long productId, long stock, long flushed) {
+        Entry entry = new Entry(productId, new long[stripes.length * PAD], flushed);
+        long base = Math.floorDiv(stock, stripes.length);
+        long remainder = Math.floorMod(stock, stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            entry.cells[i * PAD] = base + (i < remainder ? 1 : 0);
+        }
+        return entry;
+    }
+
+    private void lockAll() {
+        // always in index order, so two threads pooling never deadlock
+        for (LedgerStripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].lock.unlock();
+        }
+    }
+
+    private int probe() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void onRollback(Runnable undo) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        undo.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private void flushLoop() {
+        long lastFlush = System.nanoTime();
+        while (running) {
+            try {
+                Thread.sleep(TICK_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long waiting = unflushed.sum();
+            if (waiting == 0 && sealed.isEmpty()) {
+                // idle, nothing to write and no segment left from a failed flush
+                lastFlush = System.nanoTime();
+            } else if (waiting >= flushThreshold || System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                flush();
+                lastFlush = System.nanoTime();
+            }
+        }
+    }
+
+    // writes the stock of every changed product and the checkpoint in one transaction, then drops the journal
+    // it covers. a failed flush keeps its sealed segments, the next snapshot covers them too
+    void flush() {
+        try {
+            segmentSequence++;
+            LedgerStripe.Segment[] next = new LedgerStripe.Segment[stripes.length];
+            try {
+                for (int i = 0; i < stripes.length; i++) {
+                    next[i] = stripes[i].create(segmentSequence);
+                }
+            } catch (IOException e) {
+                LedgerStripe.sealAll(next);
+                throw e;
+            }
+            List<Entry> loaded;
+            long[] totals;
+            long checkpoint = segmentSequence - 1;
+            LedgerStripe.Segment[] old = new LedgerStripe.Segment[stripes.length];
+            snapshotLock.lock();
+            try {
+                loaded = new ArrayList<>(entries.values());
+                totals = new long[loaded.size()];
+                unflushed.reset();
+                for (int i = 0; i < stripes.length; i++) {
+                    LedgerStripe stripe = stripes[i];
+                    stripe.lock.lock();
+                    try {
+                        for (int j = 0; j < loaded.size(); j++) {
+                            totals[j] += loaded.get(j).cells[i * PAD];
+                        }
+                        old[i] = stripe.swap(next[i]);
+                    } finally {
+                        stripe.lock.unlock();
+                    }
+                }
+            } finally {
+                snapshotLock.unlock();
+            }
+            for (LedgerStripe.Segment segment : old) {
+                sealed.add(segment.path());
+            }
+            LedgerStripe.sealAll(old);
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int j = 0; j < loaded.size(); j++) {
+                    Entry entry = loaded.get(j);
+                    if (totals[j] != entry.flushed) {
+                        productRepository.setStock(entry.productId, (int) totals[j], now);
+                    }
+                }
+                // from here on the sealed segments are in the stock column, a restart skips them even if
+                // deleting them below does not happen
+                checkpointRepository.save(new InventoryLedgerCheckpoint(name, checkpoint, now));
+            });
+            for (int j = 0; j < loaded.size(); j++) {
+                loaded.get(j).flushed = totals[j];
+            }
+            for (Path segment : sealed) {
+                Files.deleteIfExists(segment);
+            }
+            sealed.clear();
+        } catch (IOException | RuntimeException e) {
+            log.error("Flushing the inventory ledger failed, its journal is kept", e);
+        }
+    }
+
+    // the database holds the last flushed stock, the journal after its checkpoint holds every change after it.
+    // segments up to the checkpoint are left over from a flush that committed but did not get to delete them
+    private void recover() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(journalDir)) {
+            segments = files.filter(f -> f.getFileName().toString().startsWith("stripe-")).sorted().toList();
+        }
+        // read in a read-write transaction, so it comes from the primary and not a lagging replica
+        long checkpoint = transactionTemplate.execute(status -> checkpointRepository.findById(name)
+                .map(InventoryLedgerCheckpoint::getSegmentSequence)
+                .orElse(0L));
+        List<Path> replayed = new ArrayList<>();
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Path segment : segments) {
+            String file = segment.getFileName().toString();
+            long sequence = Long.parseLong(file.substring(file.lastIndexOf('-') + 1, file.length() - ".log".length()));
+            if (sequence <= checkpoint) {
+                Files.delete(segment);
+                continue;
+            }
+            LedgerStripe.readDeltas(segment, deltas);
+            replayed.add(segment);
+            segmentSequence = Math.max(segmentSequence, sequence);
+        }
+        // new segments must come after the checkpoint, or the next restart would skip them
+        segmentSequence = Math.max(segmentSequence, checkpoint) + 1;
+        Map<Long, Integer> stocks = transactionTemplate.execute(status -> {
+            Map<Long, Integer> found = new HashMap<>();
+            for (Long productId : deltas.keySet()) {
+                productRepository.findStockById(productId).ifPresent(stock -> found.put(productId, stock));
+            }
+            return found;
+        });
+        for (Map.Entry<Long, Integer> stock : stocks.entrySet()) {
+            // written by the first flush, the old segments are deleted with it
+            long delta = deltas.get(stock.getKey());
+            entries.put(stock.getKey(), newEntry(stock.getKey(), stock.getValue() + delta, stock.getValue()));
+        }
+        sealed.addAll(replayed);
+        if (!replayed.isEmpty()) {
+            log.info("Recovered stock changes of {} products from {} journal segments", deltas.size(), replayed.size());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        flush();
+        for (LedgerStripe stripe : stripes) {
+            stripe.close();
+        }
+    }
+
+    private static final class Entry {
+        private final Long productId;
+        // cell i is at i * PAD and guarded by stripe i
+        private final long[] cells;
+        // stock last written to the database, flusher only
+        private long flushed;
+
+        private Entry(Long productId, long[] cells, long flushed) {
+            this.productId = productId;
+            this.cells = cells;
+            this.flushed = flushed;
+        }
+    }
+}
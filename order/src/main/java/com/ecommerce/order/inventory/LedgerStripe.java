@@ -0,0 +1,110 @@
+package com.ecommerce.order.inventory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// One stripe of the inventory ledger: the lock that guards cell i of every product,
+// and the journal segment every change to those cells is appended to while the lock is held.
+final class LedgerStripe {
+
+    // an open journal file
+    record Segment(Path path, FileChannel channel) {
+    }
+
+    // product id, signed stock delta
+    static final int RECORD_BYTES = Long.BYTES + Long.BYTES;
+
+    final ReentrantLock lock = new ReentrantLock();
+
+    private final int index;
+    private final Path dir;
+    private final boolean sync;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private Segment segment;
+
+    LedgerStripe(int index, Path dir, boolean sync) {
+        this.index = index;
+        this.dir = dir;
+        this.sync = sync;
+    }
+
+    // callers hold the lock
+    void open(long sequence) throws IOException {
+        segment = create(sequence);
+    }
+
+    // the next segment, opened without the lock so that swapping to it under the lock is cheap
+    Segment create(long sequence) throws IOException {
+        Path path = dir.resolve("stripe-" + index + "-" + sequence + ".log");
+        return new Segment(path, FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND));
+    }
+
+    // callers hold the lock and change the cell only after this returns
+    void append(long productId, long delta) throws IOException {
+        record.clear();
+        record.putLong(productId).putLong(delta).flip();
+        while (record.hasRemaining()) {
+            segment.channel().write(record);
+        }
+        if (sync) {
+            segment.channel().force(false);
+        }
+    }
+
+    // callers hold the lock. returns the segment the appends went to so far; seal it after releasing the lock,
+    // and delete it once a snapshot taken with it is committed
+    Segment swap(Segment next) {
+        Segment sealed = segment;
+        segment = next;
+        return sealed;
+    }
+
+    static void seal(Segment sealed) throws IOException {
+        try (FileChannel channel = sealed.channel()) {
+            channel.force(false);
+        }
+    }
+
+    // every segment is closed even when one fails, the first failure is thrown
+    static void sealAll(Segment[] segments) throws IOException {
+        IOException failure = null;
+        for (Segment segment : segments) {
+            if (segment == null) {
+                continue;
+            }
+            try {
+                seal(segment);
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    void close() throws IOException {
+        if (segment != null) {
+            seal(segment);
+        }
+    }
+
+    // adds the deltas of one segment to the map, a torn last record is dropped
+    static void readDeltas(Path file, Map<Long, Long> deltas) throws IOException {
+        ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(file));
+        while (records.remaining() >= RECORD_BYTES) {
+            deltas.merge(records.getLong(), records.getLong(), Long::sum);
+        }
+    }
+}
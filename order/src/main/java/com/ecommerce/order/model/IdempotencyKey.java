@@ -0,0 +1,85 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// One row per Idempotency-Key sent to POST /order. The row is inserted as a claim before the order
+// is placed (response still null) and completed with the response clients get on a retry.
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String key;
+
+    // hash of the request body, a key reused for a different order is rejected
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private Integer responseStatus;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    // the id is assigned, so without this save() would merge (select, then insert) instead of insert
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyKey() {
+    }
+
+    public IdempotencyKey(String key, String fingerprint, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.key = key;
+        this.fingerprint = fingerprint;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+}
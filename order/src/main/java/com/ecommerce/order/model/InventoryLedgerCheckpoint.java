@@ -0,0 +1,41 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Highest journal segment of an inventory ledger that the stock column already includes.
+// Written only by InventoryLedger, in the transaction that writes the stock.
+@Entity
+@Table(name = "inventory_ledger_checkpoint")
+public class InventoryLedgerCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String ledger;
+
+    private long segmentSequence;
+
+    private LocalDateTime updatedAt;
+
+    public InventoryLedgerCheckpoint() {
+    }
+
+    public InventoryLedgerCheckpoint(String ledger, long segmentSequence, LocalDateTime updatedAt) {
+        this.ledger = ledger;
+        this.segmentSequence = segmentSequence;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getLedger() {
+        return ledger;
+    }
+
+    public long getSegmentSequence() {
+        return segmentSequence;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
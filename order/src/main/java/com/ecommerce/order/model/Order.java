@@ -1,37 +1,50 @@
 package com.ecommerce.order.model;
 
-
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderStatus;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "orders")
 public class Order {
 
+    // pooled sequence ids keep JDBC insert batching on (IDENTITY disables it),
+    // on MySQL Hibernate backs this with an orders_seq table
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private String userId;
 
     private int quantity;
 
-    private double totalAmount;
+    @AttributeOverride(name = "amountMinor", column = @Column(name = "total_minor", nullable = false))
+    @AttributeOverride(name = "currency", column = @Column(name = "total_currency", length = 3, nullable = false))
+    private Money totalAmount;
 
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
     private LocalDateTime createdAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private Product product;
 
+    // only cart orders have lines, a single-product order keeps its product above.
+    // lines are persisted with the order's flush, they need its id first
+    @OneToMany(mappedBy = "order", cascade = CascadeType.PERSIST)
+    @OrderBy("id.lineNo")
+    private List<OrderLine> lines = new ArrayList<>();
 
     public Order() {
     }
 
-    public Order(String userId, int quantity, double totalAmount, OrderStatus status, LocalDateTime createdAt, Product product) {
+    public Order(String userId, int quantity, Money totalAmount, OrderStatus status, LocalDateTime createdAt, Product product) {
         this.userId = userId;
         this.quantity = quantity;
         this.totalAmount = totalAmount;
@@ -64,11 +77,11 @@ public class Order {
         this.quantity = quantity;
     }
 
-    public double getTotalAmount() {
+    public Money getTotalAmount() {
         return totalAmount;
     }
 
-    public void setTotalAmount(double totalAmount) {
+    public void setTotalAmount(Money totalAmount) {
         this.totalAmount = totalAmount;
     }
 
@@ -96,16 +109,22 @@ public class Order {
         this.product = product;
     }
 
+    public List<OrderLine> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<OrderLine> lines) {
+        this.lines = lines;
+    }
+
+    // short and never touches the lazy product, so logging an order cannot trigger a query
     @Override
     public String toString() {
-        return "Order{" +
-                "id=" + id +
+        return "Order{id=" + id +
                 ", userId='" + userId + '\'' +
+                ", productId=" + (product == null ? null : product.getId()) +
                 ", quantity=" + quantity +
-                ", totalAmount=" + totalAmount +
                 ", status=" + status +
-                ", createdAt=" + createdAt +
-                ", product=" + product +
                 '}';
     }
 }
@@ -0,0 +1,63 @@
+package com.ecommerce.order.model;
+
+import com.ecommerce.order.common.model.Money;
+import jakarta.persistence.*;
+
+// One product of a cart order. The order's id is part of the key, so the order is saved
+// (and gets its pooled id) before its lines are built.
+@Entity
+@Table(name = "order_lines")
+public class OrderLine {
+
+    @EmbeddedId
+    private OrderLineId id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", insertable = false, updatable = false)
+    private Order order;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    private int quantity;
+
+    @AttributeOverride(name = "amountMinor", column = @Column(name = "unit_price_minor", nullable = false))
+    @AttributeOverride(name = "currency", column = @Column(name = "unit_price_currency", length = 3, nullable = false))
+    private Money unitPrice;
+
+    public OrderLine() {
+    }
+
+    public OrderLine(Order order, int lineNo, Product product, int quantity, Money unitPrice) {
+        this.id = new OrderLineId(order.getId(), lineNo);
+        this.order = order;
+        this.product = product;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+    }
+
+    public OrderLineId getId() {
+        return id;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public Money getUnitPrice() {
+        return unitPrice;
+    }
+
+    public Money getLineTotal() {
+        return unitPrice.times(quantity);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+
+// named explicitly, the line's order association maps the same order_id column
+@Embeddable
+public record OrderLineId(@Column(name = "order_id") Long orderId, @Column(name = "line_no") int lineNo)
+        implements Serializable {
+}
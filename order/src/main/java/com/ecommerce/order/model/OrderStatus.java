@@ -1,6 +0,0 @@
-package com.ecommerce.order.model;
-
-public enum OrderStatus {
-    PLACED,
-    FAILED
-}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.ecommerce.order.model;
+
+import com.ecommerce.order.common.model.OrderEventType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Order change written in the same transaction as the order, relayed to event sinks afterwards
+@Entity
+@Table(name = "order_outbox")
+public class OutboxEvent {
+
+    // identity, not a pooled sequence: the relay takes rows in id order, which is insert order
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderEventType type;
+
+    // the order as an OrderView JSON document
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // position in publish order, set by the relay; the event stream's cursor
+    @Column(name = "publish_seq")
+    private Long publishSeq;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(Long orderId, OrderEventType type, String payload, LocalDateTime createdAt) {
+        this.orderId = orderId;
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public OrderEventType getType() {
+        return type;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public Long getPublishSeq() {
+        return publishSeq;
+    }
+
+    public void markPublished(long publishSeq, LocalDateTime publishedAt) {
+        this.publishSeq = publishSeq;
+        this.publishedAt = publishedAt;
+    }
+}
@@ -1,7 +1,8 @@
 package com.ecommerce.order.model;
 
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.PositiveMoney;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -18,19 +19,23 @@ public class Product {
     @NotBlank(message = "Product name is required")
     private String name;
     @NotNull(message = "Price is required")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
-    private double price;
+    @PositiveMoney(message = "Price must be greater than 0")
+    @AttributeOverride(name = "amountMinor", column = @Column(name = "price_minor", nullable = false))
+    @AttributeOverride(name = "currency", column = @Column(name = "price_currency", length = 3, nullable = false))
+    private Money price;
     @NotNull(message = "Stock is required")
     @Min(value = 1, message = "Stock at least 1 is required")
     private int stock;
     @Column(updatable = false)
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
+    @Version
+    private Long version;
 
     public Product() {
     }
 
-    public Product(String name, double price, int stock, LocalDateTime createdDate, LocalDateTime updatedDate) {
+    public Product(String name, Money price, int stock, LocalDateTime createdDate, LocalDateTime updatedDate) {
         this.name = name;
         this.price = price;
         this.stock = stock;
@@ -54,11 +59,11 @@ public class Product {
         this.name = name;
     }
 
-    public double getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(double price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
@@ -86,6 +91,14 @@ public class Product {
         this.updatedDate = updatedDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @PrePersist
     protected void onCreate() {
         this.createdDate = LocalDateTime.now();
@@ -98,13 +111,10 @@ public class Product {
 
     @Override
     public String toString() {
-        return "Product{" +
-                "Id=" + Id +
+        return "Product{id=" + Id +
                 ", name='" + name + '\'' +
-                ", price=" + price +
                 ", stock=" + stock +
-                ", createdDate=" + createdDate +
-                ", updatedDate=" + updatedDate +
+                ", version=" + version +
                 '}';
     }
 }
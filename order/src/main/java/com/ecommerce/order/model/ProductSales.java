@@ -0,0 +1,48 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+// Running totals of PLACED orders per product. Written only by SalesAggregates, with an upsert
+// in the outbox relay transaction that publishes the PLACED events.
+@Entity
+@Table(name = "product_sales")
+public class ProductSales {
+
+    @EmbeddedId
+    private ProductSalesId id;
+
+    private long orders;
+
+    private long units;
+
+    private long revenueMinor;
+
+    private LocalDateTime updatedAt;
+
+    public ProductSales() {
+    }
+
+    public ProductSalesId getId() {
+        return id;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getRevenueMinor() {
+        return revenueMinor;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Currency;
+
+@Embeddable
+public record ProductSalesId(Long productId, @Column(length = 3) Currency currency) implements Serializable {
+}
@@ -55,14 +55,11 @@ public class User {
         this.userId = userId;
     }
 
+    // no email or password in logs
     @Override
     public String toString() {
-        return "User{" +
-                "id=" + id +
+        return "User{id=" + id +
                 ", userId='" + userId + '\'' +
-                ", name='" + name + '\'' +
-                ", email='" + email + '\'' +
-                ", password='" + password + '\'' +
                 '}';
     }
 }
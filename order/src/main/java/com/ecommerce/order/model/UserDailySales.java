@@ -0,0 +1,47 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+// Running totals of PLACED orders per user and order day, maintained like ProductSales
+@Entity
+@Table(name = "user_daily_sales")
+public class UserDailySales {
+
+    @EmbeddedId
+    private UserDailySalesId id;
+
+    private long orders;
+
+    private long units;
+
+    private long revenueMinor;
+
+    private LocalDateTime updatedAt;
+
+    public UserDailySales() {
+    }
+
+    public UserDailySalesId getId() {
+        return id;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getRevenueMinor() {
+        return revenueMinor;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Currency;
+
+@Embeddable
+public record UserDailySalesId(String userId, LocalDate salesDay, @Column(length = 3) Currency currency)
+        implements Serializable {
+}
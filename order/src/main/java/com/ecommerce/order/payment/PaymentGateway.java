@@ -0,0 +1,16 @@
+package com.ecommerce.order.payment;
+
+import com.ecommerce.order.model.Order;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface PaymentGateway {
+
+    // completes with true when the amount was captured, false when it was declined
+    CompletableFuture<Boolean> charge(Order order);
+
+    // whether a charge for the order was captured. lets an order left PENDING be settled the way its payment
+    // went without charging again
+    CompletableFuture<Boolean> isCaptured(Long orderId);
+
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.order.payment;
+
+import com.ecommerce.order.model.Order;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Local stand-in for a payment provider: answers after a fixed latency without holding a thread meanwhile.
+// Captures are remembered for payment.simulated.capture-retention-minutes, like a provider's payment lookup,
+// but only in memory, so they are gone after a restart.
+@Component
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final Executor delayedExecutor;
+    private final double successRate;
+    private final long retentionMillis;
+    // order id -> capture time
+    private final Map<Long, Long> captures = new ConcurrentHashMap<>();
+
+    public SimulatedPaymentGateway(@Qualifier("applicationTaskExecutor") Executor executor,
+                                   @Value("${payment.simulated.latency-ms:200}") long latencyMs,
+                                   @Value("${payment.simulated.success-rate:0.5}") double successRate,
+                                   @Value("${payment.simulated.capture-retention-minutes:60}") long retentionMinutes) {
+        this.delayedExecutor = CompletableFuture.delayedExecutor(latencyMs, TimeUnit.MILLISECONDS, executor);
+        this.successRate = successRate;
+        this.retentionMillis = Duration.ofMinutes(retentionMinutes).toMillis();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> charge(Order order) {
+        return CompletableFuture.supplyAsync(() -> {
+            boolean captured = ThreadLocalRandom.current().nextDouble() < successRate;
+            if (captured) {
+                captures.put(order.getId(), System.currentTimeMillis());
+            }
+            return captured;
+        }, delayedExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isCaptured(Long orderId) {
+        return CompletableFuture.completedFuture(captures.containsKey(orderId));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void forgetOldCaptures() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        captures.values().removeIf(capturedAt -> capturedAt < cutoff);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// each statement runs in its own short transaction, the claim must be visible to other instances
+// before the order is placed and must not roll back with it
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // not read-only like the inherited one, so a claim made a moment ago is never looked up on the read replica
+    @Override
+    @Transactional
+    Optional<IdempotencyKey> findById(String key);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyKey k set k.responseStatus = :status, k.responseBody = :body where k.key = :key")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("body") String body);
+
+    // only an unfinished claim is deleted, a stored response stays until it expires
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.key = :key and k.responseStatus is null")
+    int deleteClaim(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.key = :key and k.responseStatus is null and k.createdAt < :before")
+    int deleteStaleClaim(@Param("key") String key, @Param("before") LocalDateTime before);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.InventoryLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InventoryLedgerCheckpointRepository extends JpaRepository<InventoryLedgerCheckpoint, String> {
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.OrderLine;
+import com.ecommerce.order.model.OrderLineId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderLineRepository extends JpaRepository<OrderLine, OrderLineId> {
+
+    // lines with their products in one query, for the events of a cart order
+    @Query("select l from OrderLine l join fetch l.product where l.id.orderId = :orderId order by l.id.lineNo")
+    List<OrderLine> findWithProductByOrderId(@Param("orderId") Long orderId);
+}
@@ -1,10 +1,65 @@
 package com.ecommerce.order.repository;
 
-
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.dto.OrderView;
 import com.ecommerce.order.model.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    @Query(VIEW + "o.id in :ids and o.status = :status")
+    List<OrderView> findViews(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+
+    // confirms many orders in one statement, an order that is no longer PENDING is left alone
+    @Modifying
+    @Query("update Order o set o.status = :to where o.id in :ids and o.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") OrderStatus from, @Param("to") OrderStatus to);
+
+    // orders still in the given status since before the cutoff, oldest first
+    @Query("select o.id from Order o where o.status = :status and o.createdAt < :before order by o.createdAt")
+    List<Long> findIdsCreatedBefore(@Param("status") OrderStatus status, @Param("before") LocalDateTime before,
+                                    Limit limit);
+
+    String VIEW = "select new com.ecommerce.order.dto.OrderView(o.id, o.userId, p.Id, p.name, o.quantity, " +
+            "o.totalAmount, o.status, o.createdAt) from Order o left join o.product p where ";
+
+    String FILTER = "(:userId is null or o.userId = :userId) " +
+            "and (:status is null or o.status = :status) " +
+            "and (:from is null or o.createdAt >= :from) " +
+            "and (:to is null or o.createdAt < :to) ";
+
+    // keyset page, newest first: rows strictly after the (createdAt, id) cursor
+    @Query(VIEW + FILTER +
+            "and (:cursorCreatedAt is null or o.createdAt < :cursorCreatedAt " +
+            "or (o.createdAt = :cursorCreatedAt and o.id < :cursorId)) " +
+            "order by o.createdAt desc, o.id desc")
+    List<OrderView> findPage(@Param("userId") String userId, @Param("status") OrderStatus status,
+                         @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt, @Param("cursorId") Long cursorId,
+                         Limit limit);
+
+    // forward-only read for exports, must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW + FILTER + "order by o.createdAt, o.id")
+    Stream<OrderView> streamOrders(@Param("userId") String userId, @Param("status") OrderStatus status,
+                               @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @EntityGraph(attributePaths = "product")
+    Optional<Order> findWithProductById(Long id);
 }
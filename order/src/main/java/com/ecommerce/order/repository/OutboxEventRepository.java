@@ -0,0 +1,44 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // lock timeout -2 is SKIP LOCKED, so relays on several instances take different rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.publishedAt is null order by e.id")
+    List<OutboxEvent> findUnpublished(Limit limit);
+
+    // the lock is held until the relay transaction commits, so the next relay's sequences commit after these
+    @Query(value = "select last_seq from order_outbox_publish_seq where id = 1 for update", nativeQuery = true)
+    long lockLastPublishSeq();
+
+    @Modifying
+    @Query(value = "update order_outbox_publish_seq set last_seq = :lastSeq where id = 1", nativeQuery = true)
+    int updateLastPublishSeq(@Param("lastSeq") long lastSeq);
+
+    @Query("select e from OutboxEvent e where e.publishSeq > :afterSeq order by e.publishSeq")
+    List<OutboxEvent> findPublishedAfter(@Param("afterSeq") long afterSeq, Limit limit);
+
+    @Query("select coalesce(max(e.publishSeq), 0) from OutboxEvent e")
+    long findLastPublishSeq();
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
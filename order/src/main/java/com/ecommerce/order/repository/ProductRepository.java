@@ -1,10 +1,60 @@
 package com.ecommerce.order.repository;
 
+import com.ecommerce.order.cache.CatalogEntry;
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.dto.ProductStock;
+import com.ecommerce.order.dto.ProductView;
 import com.ecommerce.order.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    @Query("select new com.ecommerce.order.dto.ProductView(p.Id, p.name, p.price, p.stock) from Product p")
+    List<ProductView> findAllViews();
+
+    @Query("select new com.ecommerce.order.cache.CatalogEntry(p.Id, p.name, p.price) from Product p where p.Id = :id")
+    Optional<CatalogEntry> findCatalogEntryById(@Param("id") Long id);
+
+    @Query("select new com.ecommerce.order.cache.CatalogEntry(p.Id, p.name, p.price) from Product p order by p.Id")
+    List<CatalogEntry> findAllCatalogEntries();
+
+    @Query("select new com.ecommerce.order.dto.ProductStock(p.Id, p.stock) from Product p")
+    List<ProductStock> findAllStocks();
+
+    // atomic check-and-decrement, returns 0 when the row does not have enough stock.
+    // bumps the version so a concurrent updateProduct cannot overwrite the new stock
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.stock = p.stock - :quantity, p.updatedDate = :now, p.version = p.version + 1 " +
+            "where p.Id = :id and p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.stock = p.stock + :quantity, p.updatedDate = :now, p.version = p.version + 1 " +
+            "where p.Id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // inventory ledger flush, the ledger owns the stock so there is nothing to compare against
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.stock = :stock, p.updatedDate = :now, p.version = p.version + 1 where p.Id = :id")
+    int setStock(@Param("id") Long id, @Param("stock") int stock, @Param("now") LocalDateTime now);
+
+    // leaves stock alone, for updates while the inventory ledger owns it. returns 0 when the version moved on
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.name = :name, p.price = :price, p.updatedDate = :now, p.version = p.version + 1 " +
+            "where p.Id = :id and p.version = :version")
+    int updateDetails(@Param("id") Long id, @Param("name") String name, @Param("price") Money price,
+                      @Param("version") long version, @Param("now") LocalDateTime now);
+
+    @Query("select p.stock from Product p where p.Id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
 }
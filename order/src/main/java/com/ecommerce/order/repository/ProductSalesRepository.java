@@ -0,0 +1,20 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.dto.ProductSalesView;
+import com.ecommerce.order.model.ProductSales;
+import com.ecommerce.order.model.ProductSalesId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductSalesRepository extends JpaRepository<ProductSales, ProductSalesId> {
+
+    // one row per product, best sellers first
+    @Query("select new com.ecommerce.order.dto.ProductSalesView(s.id.productId, p.name, s.orders, s.units, " +
+            "s.revenueMinor, s.id.currency) from ProductSales s left join Product p on p.Id = s.id.productId " +
+            "order by s.revenueMinor desc, s.id.productId")
+    List<ProductSalesView> findAllViews();
+}
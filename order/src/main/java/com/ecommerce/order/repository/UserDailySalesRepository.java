@@ -0,0 +1,27 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.dto.UserDailySalesView;
+import com.ecommerce.order.model.UserDailySales;
+import com.ecommerce.order.model.UserDailySalesId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface UserDailySalesRepository extends JpaRepository<UserDailySales, UserDailySalesId> {
+
+    // newest day first; the primary key serves a single user, idx_user_daily_sales_day a range of days
+    @Query("select new com.ecommerce.order.dto.UserDailySalesView(s.id.userId, s.id.salesDay, s.orders, s.units, " +
+            "s.revenueMinor, s.id.currency) from UserDailySales s " +
+            "where (:userId is null or s.id.userId = :userId) " +
+            "and (:from is null or s.id.salesDay >= :from) " +
+            "and (:to is null or s.id.salesDay <= :to) " +
+            "order by s.id.salesDay desc, s.id.userId")
+    List<UserDailySalesView> findViews(@Param("userId") String userId, @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to, Limit limit);
+}
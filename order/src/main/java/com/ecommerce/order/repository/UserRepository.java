@@ -1,12 +1,32 @@
 package com.ecommerce.order.repository;
 
+import com.ecommerce.order.dto.UserView;
 import com.ecommerce.order.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUserId(String Id);
+
+    @Query("select new com.ecommerce.order.dto.UserView(u.id, u.userId, u.name, u.email) from User u")
+    List<UserView> findAllViews();
+
+    @Query("select new com.ecommerce.order.dto.UserView(u.id, u.userId, u.name, u.email) from User u where u.userId = :userId")
+    Optional<UserView> findViewByUserId(@Param("userId") String userId);
+
+    @Query("select u.userId from User u where u.userId in :userIds")
+    List<String> findExistingUserIds(@Param("userIds") Collection<String> userIds);
+
+    boolean existsByUserId(String userId);
+
+    @Query("select u.userId from User u order by u.id desc")
+    List<String> findRecentUserIds(Limit limit);
 }
@@ -0,0 +1,16 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.CartView;
+import com.ecommerce.order.dto.OrderView;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface CartService {
+    CartView getCart(String userId);
+    // adds to the quantity already in the cart
+    CartView addItem(String userId, Long productId, int quantity);
+    CartView removeItem(String userId, Long productId);
+    void clearCart(String userId);
+    // places the whole cart as one order, the cart is emptied once it is paid
+    CompletableFuture<OrderView> checkout(String userId);
+}
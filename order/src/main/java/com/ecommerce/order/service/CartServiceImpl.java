@@ -0,0 +1,98 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.cache.CatalogEntry;
+import com.ecommerce.order.cache.ProductCatalogCache;
+import com.ecommerce.order.cache.UserExistenceCache;
+import com.ecommerce.order.cart.CartStore;
+import com.ecommerce.order.common.exception.ResourceNotFoundException;
+import com.ecommerce.order.common.exception.UserNotFoundException;
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.dto.CartView;
+import com.ecommerce.order.dto.OrderLineView;
+import com.ecommerce.order.dto.OrderView;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class CartServiceImpl implements CartService {
+
+    private final CartStore cartStore;
+    private final ProductCatalogCache productCatalogCache;
+    private final UserExistenceCache userExistenceCache;
+    private final OrderCheckoutService orderCheckoutService;
+
+    public CartServiceImpl(CartStore cartStore, ProductCatalogCache productCatalogCache,
+                           UserExistenceCache userExistenceCache, OrderCheckoutService orderCheckoutService) {
+        this.cartStore = cartStore;
+        this.productCatalogCache = productCatalogCache;
+        this.userExistenceCache = userExistenceCache;
+        this.orderCheckoutService = orderCheckoutService;
+    }
+
+    @Override
+    public CartView getCart(String userId) {
+        return view(userId, cartStore.items(userId));
+    }
+
+    @Override
+    public CartView addItem(String userId, Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+        if (!userExistenceCache.exists(userId)) {
+            throw new UserNotFoundException("User not found: " + userId);
+        }
+        if (productId == null || productCatalogCache.find(productId).isEmpty()) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        // stock is not checked or held here, checkout reserves it
+        return view(userId, cartStore.add(userId, productId, quantity));
+    }
+
+    @Override
+    public CartView removeItem(String userId, Long productId) {
+        return view(userId, cartStore.remove(userId, productId));
+    }
+
+    @Override
+    public void clearCart(String userId) {
+        cartStore.clear(userId);
+    }
+
+    @Override
+    public CompletableFuture<OrderView> checkout(String userId) {
+        Map<Long, Integer> items = cartStore.items(userId);
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty");
+        }
+        // a failed payment leaves the cart as it was, so the user can simply try again
+        return orderCheckoutService.checkoutCart(userId, items)
+                .thenApply(order -> {
+                    cartStore.clearIfUnchanged(userId, items);
+                    return order;
+                });
+    }
+
+    // priced from the catalog at read time, a product deleted since it was added is left out
+    private CartView view(String userId, Map<Long, Integer> items) {
+        List<OrderLineView> lines = new ArrayList<>(items.size());
+        Money total = null;
+        int units = 0;
+        for (Map.Entry<Long, Integer> item : items.entrySet()) {
+            Optional<CatalogEntry> product = productCatalogCache.find(item.getKey());
+            if (product.isEmpty()) {
+                continue;
+            }
+            Money lineTotal = product.get().price().times(item.getValue());
+            lines.add(new OrderLineView(item.getKey(), product.get().name(), item.getValue(), product.get().price(), lineTotal));
+            total = total == null ? lineTotal : total.plus(lineTotal);
+            units += item.getValue();
+        }
+        return new CartView(userId, lines, units, total);
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.exception.IdempotencyConflictException;
+import com.ecommerce.order.exception.IdempotencyKeyReuseException;
+import com.ecommerce.order.model.IdempotencyKey;
+import com.ecommerce.order.repository.IdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+// Maps an Idempotency-Key to the response of the request that first used it.
+// Recent keys are answered from memory; the idempotency_keys table makes a key claimed on one
+// instance visible to the others and survives restarts.
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+    static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyRepository repository;
+    private final Cache<String, Entry> recent;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final Counter replays;
+
+    public IdempotencyStore(IdempotencyKeyRepository repository, MeterRegistry meterRegistry,
+                            @Value("${order.idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${order.idempotency.claim-timeout-seconds:300}") long claimTimeoutSeconds,
+                            @Value("${order.idempotency.cache-size:100000}") long cacheSize) {
+        this.repository = repository;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+        // an open claim is only held locally until the claim timeout, after that the table decides whether
+        // it was finished or can be taken over, possibly by another instance
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.<String, Entry>writing((key, entry) -> entry.response() == null ? claimTimeout : ttl))
+                .build();
+        this.replays = meterRegistry.counter("order.idempotency.replays");
+    }
+
+    // empty when the caller now owns the key and must complete or abandon it,
+    // otherwise the response stored for the first request
+    public Optional<StoredResponse> claim(String key, String fingerprint) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key cannot be longer than " + MAX_KEY_LENGTH + " characters");
+        }
+        Entry local = recent.getIfPresent(key);
+        if (local != null) {
+            return previous(local, fingerprint);
+        }
+
+        // read first: a retry that reaches another instance is answered by one select instead of a failed insert
+        LocalDateTime now = LocalDateTime.now();
+        Optional<IdempotencyKey> stored = repository.findById(key);
+        if (stored.isEmpty()) {
+            try {
+                repository.saveAndFlush(new IdempotencyKey(key, fingerprint, now, now.plus(ttl)));
+                recent.put(key, new Entry(fingerprint, null));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                // claimed concurrently, possibly by another instance
+                stored = repository.findById(key);
+            }
+        }
+
+        IdempotencyKey existing = stored
+                .orElseThrow(() -> new IdempotencyConflictException("A request with this Idempotency-Key is still being processed"));
+        if (!existing.isCompleted() && existing.getFingerprint().equals(fingerprint)
+                && repository.deleteStaleClaim(key, now.minus(claimTimeout)) > 0) {
+            // the instance holding the claim never finished it
+            log.warn("Taking over stale idempotency claim {}", key);
+            return claim(key, fingerprint);
+        }
+        StoredResponse response = existing.isCompleted()
+                ? new StoredResponse(existing.getResponseStatus(), existing.getResponseBody()) : null;
+        Entry entry = new Entry(existing.getFingerprint(), response);
+        if (response != null) {
+            recent.put(key, entry);
+        }
+        return previous(entry, fingerprint);
+    }
+
+    public void complete(String key, String fingerprint, StoredResponse response) {
+        recent.put(key, new Entry(fingerprint, response));
+        repository.complete(key, response.status(), response.body());
+    }
+
+    // the request failed without changing anything, a retry with the same key runs again
+    public void abandon(String key) {
+        recent.invalidate(key);
+        repository.deleteClaim(key);
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    public static String fingerprint(String request) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Optional<StoredResponse> previous(Entry entry, String fingerprint) {
+        if (!entry.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReuseException("Idempotency-Key was already used for a different request");
+        }
+        if (entry.response() == null) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        }
+        replays.increment();
+        return Optional.of(entry.response());
+    }
+
+    public record StoredResponse(int status, String body) {
+    }
+
+    // response is null while the first request is still running
+    private record Entry(String fingerprint, StoredResponse response) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.BatchOrderResult;
+import com.ecommerce.order.dto.OrderLineRequest;
+import com.ecommerce.order.dto.OrderView;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface OrderCheckoutService {
+
+    // reserve -> pay -> confirm or release, completes with the final order
+    CompletableFuture<OrderView> checkout(Long productId, String userId, int quantity);
+
+    // same as checkout, a retry with the same key gets the first outcome back without placing another order
+    CompletableFuture<OrderView> checkout(String idempotencyKey, Long productId, String userId, int quantity);
+
+    // reserves every line in one transaction, then pays each order on its own
+    CompletableFuture<List<BatchOrderResult>> checkoutBatch(List<OrderLineRequest> lines);
+
+    // one order with a line per product: one transaction reserves everything, then one payment for the lot
+    CompletableFuture<OrderView> checkoutCart(String userId, Map<Long, Integer> items);
+
+}
@@ -0,0 +1,243 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.admission.AdmissionControl;
+import com.ecommerce.order.cache.CatalogEntry;
+import com.ecommerce.order.cache.ProductCatalogCache;
+import com.ecommerce.order.common.exception.PaymentFailedException;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.dto.BatchOrderResult;
+import com.ecommerce.order.dto.OrderLineRequest;
+import com.ecommerce.order.dto.OrderLineView;
+import com.ecommerce.order.dto.OrderView;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.payment.PaymentGateway;
+import com.ecommerce.order.service.IdempotencyStore.StoredResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+@Service
+public class OrderCheckoutServiceImpl implements OrderCheckoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderCheckoutServiceImpl.class);
+
+    private final OrderService orderService;
+    private final PaymentGateway paymentGateway;
+    private final OrderMetrics orderMetrics;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final OrderConfirmationWriter confirmationWriter;
+    private final ProductCatalogCache productCatalogCache;
+    private final OrderCoalescer orderCoalescer;
+    private final AdmissionControl admissionControl;
+    private final int maxBatchLines;
+
+    public OrderCheckoutServiceImpl(OrderService orderService, PaymentGateway paymentGateway,
+                                    OrderMetrics orderMetrics,
+                                    IdempotencyStore idempotencyStore, ObjectMapper objectMapper,
+                                    OrderConfirmationWriter confirmationWriter, ProductCatalogCache productCatalogCache,
+                                    OrderCoalescer orderCoalescer, AdmissionControl admissionControl,
+                                    @Value("${order.batch.max-lines:500}") int maxBatchLines) {
+        this.orderService = orderService;
+        this.paymentGateway = paymentGateway;
+        this.orderMetrics = orderMetrics;
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.confirmationWriter = confirmationWriter;
+        this.productCatalogCache = productCatalogCache;
+        this.orderCoalescer = orderCoalescer;
+        this.admissionControl = admissionControl;
+        this.maxBatchLines = maxBatchLines;
+    }
+
+    @Override
+    public CompletableFuture<OrderView> checkout(Long productId, String userId, int quantity) {
+        return reserve(productId, userId, quantity).thenCompose(this::payAndSettle);
+    }
+
+    @Override
+    public CompletableFuture<OrderView> checkout(String idempotencyKey, Long productId, String userId, int quantity) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return checkout(productId, userId, quantity);
+        }
+        String fingerprint = IdempotencyStore.fingerprint(productId + "|" + userId + "|" + quantity);
+        Optional<StoredResponse> previous = idempotencyStore.claim(idempotencyKey, fingerprint);
+        if (previous.isPresent()) {
+            return replay(previous.get());
+        }
+
+        CompletableFuture<Order> reserved;
+        try {
+            reserved = reserve(productId, userId, quantity);
+        } catch (RuntimeException ex) {
+            // rejected before any stock was taken, a 429 included, so the same key may be retried
+            idempotencyStore.abandon(idempotencyKey);
+            throw ex;
+        }
+        return reserved
+                .whenComplete((pending, ex) -> {
+                    if (ex != null) {
+                        // a coalesced order turned away by its batch, nothing was taken either
+                        idempotencyStore.abandon(idempotencyKey);
+                    }
+                })
+                .thenCompose(pending -> payAndSettle(pending)
+                        .whenComplete((order, ex) -> remember(idempotencyKey, fingerprint, order, ex)));
+    }
+
+    @Override
+    public CompletableFuture<List<BatchOrderResult>> checkoutBatch(List<OrderLineRequest> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one order line");
+        }
+        if (lines.size() > maxBatchLines) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + maxBatchLines + " order lines");
+        }
+
+        List<CompletableFuture<BatchOrderResult>> results = new ArrayList<>(lines.size());
+        for (OrderLineOutcome outcome : orderService.placeOrders(lines)) {
+            if (!outcome.isReserved()) {
+                results.add(CompletableFuture.completedFuture(BatchOrderResult.rejected(outcome.line(), outcome.error())));
+                continue;
+            }
+            Order pending = outcome.order();
+            results.add(payAndSettle(pending).handle((order, ex) -> ex == null
+                    ? new BatchOrderResult(outcome.line(), order.id(), order.status(), order.totalAmount(), null)
+                    : new BatchOrderResult(outcome.line(), pending.getId(), OrderStatus.FAILED, pending.getTotalAmount(),
+                    rootMessage(ex))));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .thenApply(done -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    @Override
+    public CompletableFuture<OrderView> checkoutCart(String userId, Map<Long, Integer> items) {
+        Order pending = orderService.placeCartOrder(userId, items);
+        // the lines' products were loaded by the placing transaction, nothing is fetched here
+        OrderView view = OrderView.from(pending).withLines(pending.getLines().stream().map(OrderLineView::from).toList());
+        List<Long> productIds = view.lines().stream().map(OrderLineView::productId).toList();
+        // never write-behind: confirming a cart order has to read its lines
+        return settle(pending, productIds, () -> {
+            orderService.confirmOrder(pending.getId());
+            return view.withStatus(OrderStatus.PLACED);
+        });
+    }
+
+    // step 1: short transaction, stock reserved and order PENDING.
+    // turned away with a 429 before touching stock or the pool when over the limits; the permit covers
+    // the reservation only, the payment holds no connection and is not limited.
+    // a coalesced order completes when its product's batch does, without holding the request thread
+    private CompletableFuture<Order> reserve(Long productId, String userId, int quantity) {
+        AdmissionControl.Permit permit = admissionControl.admit(userId, productId);
+        try {
+            if (orderCoalescer.isEnabled() && productId != null) {
+                return orderCoalescer.place(productId, userId, quantity).whenComplete((pending, ex) -> permit.release());
+            }
+            Order pending = orderService.placeOrder(productId, userId, quantity);
+            permit.release();
+            return CompletableFuture.completedFuture(pending);
+        } catch (RuntimeException ex) {
+            permit.release();
+            throw ex;
+        }
+    }
+
+    private CompletableFuture<OrderView> payAndSettle(Order pending) {
+        Long productId = pending.getProduct() == null ? null : pending.getProduct().getId();
+        return settle(pending, Collections.singletonList(productId), () -> confirm(pending, productId));
+    }
+
+    private CompletableFuture<OrderView> settle(Order pending, List<Long> productIds, Supplier<OrderView> confirm) {
+        // step 2: payment runs with no transaction or connection held
+        long paymentStart = System.nanoTime();
+        return paymentGateway.charge(pending)
+                .whenComplete((paid, ex) -> orderMetrics.record(OrderMetrics.PAYMENT, System.nanoTime() - paymentStart))
+                .exceptionally(ex -> {
+                    log.warn("Payment call failed for order {}", pending.getId(), ex);
+                    return false;
+                })
+                // step 3: short transaction again, confirm or give the stock back
+                .thenApply(paid -> {
+                    if (paid) {
+                        OrderView placed;
+                        try {
+                            placed = confirm.get();
+                        } catch (RuntimeException ex) {
+                            // never released here: the order stays PENDING and the pending sweeper, which finds
+                            // the charge captured, confirms it
+                            log.error("Order {} was paid but could not be confirmed", pending.getId(), ex);
+                            throw ex;
+                        }
+                        productIds.forEach(productId -> orderMetrics.outcome(productId, OrderMetrics.PLACED));
+                        return placed;
+                    }
+                    orderService.releaseOrder(pending.getId());
+                    productIds.forEach(productId -> orderMetrics.outcome(productId, OrderMetrics.PAYMENT_FAILED));
+                    throw new PaymentFailedException();
+                });
+    }
+
+    private OrderView confirm(Order pending, Long productId) {
+        if (!confirmationWriter.submit(pending.getId())) {
+            return OrderView.from(orderService.confirmOrder(pending.getId()));
+        }
+        // durable in the write-ahead log, the row turns PLACED with the writer's next batch.
+        // the product is not loaded here, its name comes from the catalog cache
+        String productName = productCatalogCache.find(productId).map(CatalogEntry::name).orElse(null);
+        return new OrderView(pending.getId(), pending.getUserId(), productId, productName, pending.getQuantity(),
+                pending.getTotalAmount(), OrderStatus.PLACED, pending.getCreatedAt());
+    }
+
+    private void remember(String key, String fingerprint, OrderView order, Throwable ex) {
+        try {
+            if (ex == null) {
+                idempotencyStore.complete(key, fingerprint,
+                        new StoredResponse(HttpStatus.OK.value(), objectMapper.writeValueAsString(order)));
+            } else if (rootCause(ex) instanceof PaymentFailedException failed) {
+                idempotencyStore.complete(key, fingerprint,
+                        new StoredResponse(HttpStatus.PAYMENT_REQUIRED.value(), failed.getMessage()));
+            } else {
+                // failed after the stock was reserved, the claim stays so a retry cannot pay twice
+                // before the claim times out
+                log.warn("Order for idempotency key {} failed after reserving stock", key, ex);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Could not store the response for idempotency key {}", key, e);
+        }
+    }
+
+    private CompletableFuture<OrderView> replay(StoredResponse response) {
+        if (response.status() == HttpStatus.PAYMENT_REQUIRED.value()) {
+            return CompletableFuture.failedFuture(new PaymentFailedException(response.body()));
+        }
+        try {
+            return CompletableFuture.completedFuture(objectMapper.readValue(response.body(), OrderView.class));
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Stored order response is unreadable", e));
+        }
+    }
+
+    private static String rootMessage(Throwable ex) {
+        return rootCause(ex).getMessage();
+    }
+
+    private static Throwable rootCause(Throwable ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
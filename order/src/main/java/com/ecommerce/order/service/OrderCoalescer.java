@@ -0,0 +1,208 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.OrderLineRequest;
+import com.ecommerce.order.exception.ServiceUnavailableException;
+import com.ecommerce.order.model.Order;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Request coalescing for hot products (order.coalescing.enabled).
+// Orders for the same product that arrive within window-ms of the first one, or until max-batch are
+// waiting, are placed together through placeOrders: one stock read, one conditional decrement and one
+// batched insert for the whole group, in one transaction. Each caller then gets its own PENDING order,
+// or the exception placeOrder would have thrown; lines that do not fit the stock lose in arrival order.
+// A lane lives for one window: the flush that closes it also drops it from the map.
+@Component
+public class OrderCoalescer {
+
+    private record Waiting(OrderLineRequest line, CompletableFuture<Order> result) {
+    }
+
+    private static final class Lane {
+        private final Long productId;
+        private List<Waiting> waiting = new ArrayList<>();
+        // flushed and removed from lanes, callers still holding it go back for a new one
+        private boolean retired;
+
+        private Lane(Long productId) {
+            this.productId = productId;
+        }
+    }
+
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final long windowMicros;
+    private final int maxBatch;
+    private final int flushThreads;
+    private final DistributionSummary batchSizes;
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService timer;
+    private ExecutorService flusher;
+    private volatile boolean stopped;
+
+    public OrderCoalescer(OrderService orderService, MeterRegistry meterRegistry,
+                          @Value("${order.coalescing.enabled:false}") boolean enabled,
+                          @Value("${order.coalescing.window-ms:2}") double windowMs,
+                          @Value("${order.coalescing.max-batch:100}") int maxBatch,
+                          @Value("${order.coalescing.flush-threads:4}") int flushThreads) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.windowMicros = Math.round(windowMs * 1000);
+        this.maxBatch = maxBatch;
+        this.flushThreads = flushThreads;
+        this.batchSizes = DistributionSummary.builder("order.coalescing.batch_size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(daemon("order-coalescer-timer"));
+        // each flush holds a pooled connection, keep this below the pool size
+        flusher = Executors.newFixedThreadPool(flushThreads, daemon("order-coalescer"));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (timer == null) {
+            return;
+        }
+        stopped = true;
+        timer.shutdownNow();
+        // whatever is still waiting is placed now instead of failing
+        lanes.values().forEach(this::flush);
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<Order> place(Long productId, String userId, int quantity) {
+        CompletableFuture<Order> result = new CompletableFuture<>();
+        Waiting entry = new Waiting(new OrderLineRequest(productId, userId, quantity), result);
+        Lane lane;
+        List<Waiting> full = null;
+        boolean first;
+        while (true) {
+            lane = lanes.computeIfAbsent(productId, Lane::new);
+            synchronized (lane) {
+                if (stopped) {
+                    return CompletableFuture.failedFuture(
+                            new ServiceUnavailableException("Order service is shutting down, please retry"));
+                }
+                if (lane.retired) {
+                    continue;
+                }
+                lane.waiting.add(entry);
+                first = lane.waiting.size() == 1;
+                if (lane.waiting.size() >= maxBatch) {
+                    full = take(lane);
+                }
+                break;
+            }
+        }
+        if (full != null) {
+            List<Waiting> batch = full;
+            try {
+                flusher.execute(() -> place(batch));
+            } catch (RejectedExecutionException e) {
+                // stop() got in between, place it here rather than leave the callers hanging
+                place(batch);
+            }
+        } else if (first) {
+            Lane window = lane;
+            try {
+                // a timer left over from a batch that filled up early only closes the lane sooner
+                timer.schedule(() -> closeLater(window), windowMicros, TimeUnit.MICROSECONDS);
+            } catch (RejectedExecutionException e) {
+                flush(window);
+            }
+        }
+        return result;
+    }
+
+    // lanes still collecting orders
+    int openLanes() {
+        return lanes.size();
+    }
+
+    private void closeLater(Lane lane) {
+        try {
+            flusher.execute(() -> flush(lane));
+        } catch (RejectedExecutionException e) {
+            flush(lane);
+        }
+    }
+
+    private void flush(Lane lane) {
+        List<Waiting> batch;
+        synchronized (lane) {
+            batch = take(lane);
+            if (!lane.retired) {
+                lane.retired = true;
+                lanes.remove(lane.productId, lane);
+            }
+        }
+        if (!batch.isEmpty()) {
+            place(batch);
+        }
+    }
+
+    private static List<Waiting> take(Lane lane) {
+        List<Waiting> batch = lane.waiting;
+        lane.waiting = new ArrayList<>();
+        return batch;
+    }
+
+    private void place(List<Waiting> batch) {
+        batchSizes.record(batch.size());
+        List<OrderLineOutcome> outcomes;
+        try {
+            outcomes = orderService.placeOrders(batch.stream().map(Waiting::line).toList());
+        } catch (RuntimeException e) {
+            // the transaction rolled back, nothing was reserved for anyone in the batch
+            batch.forEach(waiting -> waiting.result().completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            OrderLineOutcome outcome = outcomes.get(i);
+            if (outcome.isReserved()) {
+                batch.get(i).result().complete(outcome.order());
+            } else {
+                batch.get(i).result().completeExceptionally(outcome.rejection());
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,231 @@
+package com.ecommerce.order.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind for payment confirmations (order.write-behind.enabled).
+// A paid order id is appended to a local write-ahead log and fsynced before the caller answers,
+// then a single writer thread moves the queued orders to PLACED in batches, one transaction per batch.
+// Ids left in the log by a crash are confirmed again on the next start; confirming twice is a no-op.
+@Component
+public class OrderConfirmationWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderConfirmationWriter.class);
+    private static final int RECORD_BYTES = Long.BYTES;
+    // the log is only truncated once it is this big and everything in it is written
+    private static final long CHECKPOINT_BYTES = 1 << 20;
+
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Path walFile;
+    private final BlockingQueue<Long> queue;
+    private final Counter fallbacks;
+
+    // locks rather than synchronized, so a virtual thread doing file I/O under them does not pin its carrier
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private FileChannel wal;
+    // appends counted, not file positions, so a truncate cannot make a later append look forced
+    private volatile long appended;
+    private long forced;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public OrderConfirmationWriter(OrderService orderService, MeterRegistry meterRegistry,
+                                   @Value("${order.write-behind.enabled:false}") boolean enabled,
+                                   @Value("${order.write-behind.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${order.write-behind.batch-size:500}") int batchSize,
+                                   @Value("${order.write-behind.wal-file:data/order-confirmations.wal}") String walFile) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.walFile = Path.of(walFile);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.fallbacks = meterRegistry.counter("order.write_behind.fallbacks");
+        meterRegistry.gauge("order.write_behind.queue", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path dir = walFile.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        wal = FileChannel.open(walFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+        running = true;
+        writer = new Thread(this::drain, "order-confirmation-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // true once the confirmation is durable and queued. false when write-behind is off, the queue is full
+    // or the log could not be written or synced, the caller then confirms synchronously, which slows it down
+    // to what the database takes
+    public boolean submit(Long orderId) {
+        if (!running) {
+            return false;
+        }
+        long sequence;
+        appendLock.lock();
+        try {
+            if (queue.remainingCapacity() == 0) {
+                fallbacks.increment();
+                return false;
+            }
+            try {
+                ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES).putLong(orderId).flip();
+                while (record.hasRemaining()) {
+                    wal.write(record, wal.size());
+                }
+            } catch (IOException e) {
+                log.error("Could not append order {} to {}", orderId, walFile, e);
+                fallbacks.increment();
+                return false;
+            }
+            sequence = ++appended;
+            // only submit adds, under this lock, so the capacity checked above is still there
+            queue.add(orderId);
+        } finally {
+            appendLock.unlock();
+        }
+        if (!force(sequence)) {
+            // still queued, so the writer confirms it too, but the caller must not answer before it is in
+            // the database. confirming twice is a no-op
+            fallbacks.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // group commit on the log: one fsync covers every append made before it started.
+    // false when the sync failed, each waiter then tries again itself and nobody is told it is durable
+    private boolean force(long sequence) {
+        forceLock.lock();
+        try {
+            if (forced >= sequence) {
+                return true;
+            }
+            long target = appended;
+            try {
+                wal.force(false);
+                forced = target;
+                return true;
+            } catch (IOException e) {
+                log.error("Could not sync {}", walFile, e);
+                return false;
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private void drain() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Long first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (write(batch)) {
+                    checkpoint();
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // keeps retrying, the ids stay in the log either way so giving up only happens on shutdown
+    private boolean write(List<Long> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                orderService.confirmOrders(batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.error("Leaving {} order confirmations in {} for the next start", batch.size(), walFile, e);
+                    return false;
+                }
+                log.warn("Confirming {} orders failed, attempt {}", batch.size(), attempt, e);
+                Thread.sleep(Math.min(1000L, 50L * attempt));
+            }
+        }
+    }
+
+    private void checkpoint() {
+        appendLock.lock();
+        try {
+            if (queue.isEmpty() && wal.size() >= CHECKPOINT_BYTES) {
+                wal.truncate(0);
+            }
+        } catch (IOException e) {
+            log.warn("Could not truncate {}", walFile, e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        long size = wal.size();
+        ByteBuffer records = ByteBuffer.allocate((int) (size - size % RECORD_BYTES));
+        int read = 0;
+        while (records.hasRemaining() && read >= 0) {
+            read = wal.read(records, records.position());
+        }
+        records.flip();
+        // a torn last record from a crash mid-append is dropped, that order was never acknowledged
+        List<Long> ids = new ArrayList<>(records.remaining() / RECORD_BYTES);
+        while (records.remaining() >= RECORD_BYTES) {
+            ids.add(records.getLong());
+        }
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            orderService.confirmOrders(ids.subList(from, Math.min(ids.size(), from + batchSize)));
+        }
+        wal.truncate(0);
+        wal.force(true);
+        if (!ids.isEmpty()) {
+            log.info("Confirmed {} orders left in {} by the previous run", ids.size(), walFile);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        // the writer drains what is queued before it exits
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        wal.close();
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.Order;
+
+// result of reserving one batch line: a PENDING order, or the exception placeOrder would have thrown for it
+public record OrderLineOutcome(int line, Order order, RuntimeException rejection) {
+
+    public static OrderLineOutcome reserved(int line, Order order) {
+        return new OrderLineOutcome(line, order, null);
+    }
+
+    public static OrderLineOutcome rejected(int line, RuntimeException rejection) {
+        return new OrderLineOutcome(line, null, rejection);
+    }
+
+    public boolean isReserved() {
+        return order != null;
+    }
+
+    public String error() {
+        return rejection == null ? null : rejection.getMessage();
+    }
+}
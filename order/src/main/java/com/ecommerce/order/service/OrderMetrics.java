@@ -0,0 +1,56 @@
+package com.ecommerce.order.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Timers for each phase of placing an order and counters for how orders end, per product.
+// Phase timers publish histogram buckets so percentiles can be aggregated across instances in Prometheus.
+@Component
+public class OrderMetrics {
+
+    public static final String USER_LOOKUP = "user_lookup";
+    public static final String PRODUCT_FETCH = "product_fetch";
+    public static final String STOCK_UPDATE = "stock_update";
+    public static final String PAYMENT = "payment";
+    public static final String ORDER_INSERT = "order_insert";
+
+    public static final String PLACED = "placed";
+    public static final String INSUFFICIENT_STOCK = "insufficient_stock";
+    public static final String PAYMENT_FAILED = "payment_failed";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> phases = new HashMap<>();
+
+    public OrderMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        // built once, looking a meter up in the registry on every call is not free on the hot path
+        for (String phase : new String[]{USER_LOOKUP, PRODUCT_FETCH, STOCK_UPDATE, PAYMENT, ORDER_INSERT}) {
+            phases.put(phase, Timer.builder("order.place.phase")
+                    .description("Time spent in one phase of placing an order")
+                    .tag("phase", phase)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry));
+        }
+    }
+
+    public <T> T time(String phase, Supplier<T> action) {
+        return phases.get(phase).record(action);
+    }
+
+    public void record(String phase, long nanos) {
+        phases.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void outcome(Long productId, String outcome) {
+        meterRegistry.counter("order.outcome", "productId", String.valueOf(productId), "outcome", outcome).increment();
+    }
+}
@@ -1,11 +1,30 @@
 package com.ecommerce.order.service;
 
+import com.ecommerce.order.dto.OrderLineRequest;
+import com.ecommerce.order.dto.OrderPage;
+import com.ecommerce.order.dto.OrderQuery;
+import com.ecommerce.order.dto.OrderView;
 import com.ecommerce.order.model.Order;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface OrderService {
+    // reserves stock and records a PENDING order, payment happens afterwards
     Order placeOrder(Long productId, String userId, int quantity);
-    List<Order> getAllOrders();
+    // same as placeOrder for many lines at once, one outcome per line in request order
+    List<OrderLineOutcome> placeOrders(List<OrderLineRequest> lines);
+    // one PENDING order with a line per product, all stock reserved in one transaction or none at all
+    Order placeCartOrder(String userId, Map<Long, Integer> items);
+    Order confirmOrder(Long orderId);
+    // bulk confirm for the write-behind writer, returns how many orders moved to PLACED
+    int confirmOrders(Collection<Long> orderIds);
+    // confirm and release act only on a PENDING order, whichever of them moves it out of PENDING first wins
+    Order releaseOrder(Long orderId);
+    OrderPage getOrders(OrderQuery query, String cursor, int limit);
+    // streams every matching order, oldest first, without loading them all at once
+    void forEachOrder(OrderQuery query, Consumer<OrderView> consumer);
 
 }
@@ -1,35 +1,72 @@
 package com.ecommerce.order.service;
 
-import com.ecommerce.order.exception.InsufficientStockException;
-import com.ecommerce.order.exception.PaymentFailedException;
-import com.ecommerce.order.exception.ResourceNotFoundException;
-import com.ecommerce.order.exception.UserNotFoundException;
+import com.ecommerce.order.cache.CatalogEntry;
+import com.ecommerce.order.cache.ProductCatalogCache;
+import com.ecommerce.order.cache.UserExistenceCache;
+import com.ecommerce.order.common.dto.OrderCursor;
+import com.ecommerce.order.common.exception.InsufficientStockException;
+import com.ecommerce.order.common.exception.ResourceNotFoundException;
+import com.ecommerce.order.common.exception.UserNotFoundException;
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderEventType;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.dto.OrderLineRequest;
+import com.ecommerce.order.dto.OrderLineView;
+import com.ecommerce.order.dto.OrderPage;
+import com.ecommerce.order.dto.OrderQuery;
+import com.ecommerce.order.dto.OrderView;
+import com.ecommerce.order.events.OrderEventOutbox;
 import com.ecommerce.order.model.Order;
-import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.OrderLine;
 import com.ecommerce.order.model.Product;
-import com.ecommerce.order.model.User;
+import com.ecommerce.order.repository.OrderLineRepository;
 import com.ecommerce.order.repository.OrderRepository;
 import com.ecommerce.order.repository.ProductRepository;
-import com.ecommerce.order.repository.UserRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class OrderServiceImpl implements OrderService {
 
+    static final int MAX_PAGE_SIZE = 500;
+
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final StockReservationService stockReservationService;
+    private final ProductCatalogCache productCatalogCache;
+    private final OrderMetrics orderMetrics;
+    private final OrderEventOutbox orderEventOutbox;
+    private final OrderLineRepository orderLineRepository;
 
-    public OrderServiceImpl(ProductRepository productRepository, OrderRepository orderRepository, UserRepository userRepository) {
+    public OrderServiceImpl(ProductRepository productRepository, OrderRepository orderRepository, UserExistenceCache userExistenceCache,
+                            StockReservationService stockReservationService, ProductCatalogCache productCatalogCache,
+                            OrderMetrics orderMetrics, OrderEventOutbox orderEventOutbox,
+                            OrderLineRepository orderLineRepository) {
         this.productRepository = productRepository;
         this.orderRepository = orderRepository;
-        this.userRepository = userRepository;
+        this.orderLineRepository = orderLineRepository;
+        this.userExistenceCache = userExistenceCache;
+        this.stockReservationService = stockReservationService;
+        this.productCatalogCache = productCatalogCache;
+        this.orderMetrics = orderMetrics;
+        this.orderEventOutbox = orderEventOutbox;
     }
 
     @Override
@@ -39,55 +76,297 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalArgumentException("User ID cannot be null or empty");
         }
 
-        Optional<User> user = userRepository.findByUserId(userId);
-        if (user.isEmpty()) {
+        if (!orderMetrics.time(OrderMetrics.USER_LOOKUP, () -> userExistenceCache.exists(userId))) {
             throw new UserNotFoundException("User not found: " + userId);
         }
 
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be greater than zero");
         }
-        Optional<Product> optionalProduct = productRepository.findById(productId);
+        // name and price come from the catalog cache, stock is only ever checked by the conditional update
+        Optional<CatalogEntry> catalogEntry = orderMetrics.time(OrderMetrics.PRODUCT_FETCH, () -> productCatalogCache.find(productId));
 // check product is available or not
-        if (optionalProduct.isEmpty()) {
+        if (catalogEntry.isEmpty()) {
             throw new ResourceNotFoundException("Product not found with id: " + productId);
         }
+        CatalogEntry product = catalogEntry.get();
+
+// reserve the stock, locking only this product
+        stockReservationService.reserve(productId, quantity);
+
+// stock is held by a pending order until payment confirms or releases it
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setQuantity(quantity);
+        order.setProduct(productRepository.getReferenceById(productId));
+        order.setCreatedAt(LocalDateTime.now());
+        order.setTotalAmount(product.price().times(quantity));
+        order.setStatus(OrderStatus.PENDING);
 
+        // flushed here so the timer covers the INSERT instead of leaving it to the commit
+        Order saved = orderMetrics.time(OrderMetrics.ORDER_INSERT, () -> orderRepository.saveAndFlush(order));
+        // the product is only a reference, the event takes its name from the catalog entry
+        orderEventOutbox.record(OrderEventType.CREATED, new OrderView(saved.getId(), userId, productId, product.name(),
+                quantity, saved.getTotalAmount(), saved.getStatus(), saved.getCreatedAt()));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<OrderLineOutcome> placeOrders(List<OrderLineRequest> lines) {
+        OrderLineOutcome[] outcomes = new OrderLineOutcome[lines.size()];
+        LocalDateTime now = LocalDateTime.now();
 
-// if available than get product
-        Product product = optionalProduct.get();
-        // check single thread access and check stock of product
-        synchronized (this) {
-            if (product.getStock() < quantity) {
-                throw new InsufficientStockException("Only " + product.getStock() + " items left in stock");
+        // one IN query for all users instead of a lookup per line
+        Set<String> userIds = new HashSet<>();
+        for (OrderLineRequest line : lines) {
+            if (line.userId() != null) {
+                userIds.add(line.userId());
             }
+        }
+        Set<String> knownUsers = userIds.isEmpty() ? Set.of() : userExistenceCache.existing(userIds);
 
-// if stock available than save order and update stock
-            product.setStock(product.getStock() - quantity);
-            product.setUpdatedDate(LocalDateTime.now());
-            productRepository.save(product);
+        // group accepted lines per product, products in id order so row locks are always taken in the same order
+        TreeMap<Long, List<Integer>> linesByProduct = new TreeMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            OrderLineRequest line = lines.get(i);
+            if (line.userId() == null || line.userId().trim().isEmpty()) {
+                outcomes[i] = OrderLineOutcome.rejected(i, new IllegalArgumentException("User ID cannot be null or empty"));
+            } else if (!knownUsers.contains(line.userId())) {
+                outcomes[i] = OrderLineOutcome.rejected(i, new UserNotFoundException("User not found: " + line.userId()));
+            } else if (line.quantity() <= 0) {
+                outcomes[i] = OrderLineOutcome.rejected(i, new IllegalArgumentException("Quantity must be greater than zero"));
+            } else if (line.productId() == null) {
+                outcomes[i] = OrderLineOutcome.rejected(i, new IllegalArgumentException("Product ID is required"));
+            } else {
+                linesByProduct.computeIfAbsent(line.productId(), id -> new ArrayList<>()).add(i);
+            }
         }
-// payment simulation failed or pass.
-        boolean paymentSuccess = new Random().nextBoolean();
 
-        if (!paymentSuccess) {
-            throw new PaymentFailedException("Payment failed. Order not placed.");
+        Map<Long, Product> products = productRepository.findAllById(linesByProduct.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<Order> orders = new ArrayList<>();
+        for (Map.Entry<Long, List<Integer>> entry : linesByProduct.entrySet()) {
+            Long productId = entry.getKey();
+            Product product = products.get(productId);
+            if (product == null) {
+                for (int i : entry.getValue()) {
+                    outcomes[i] = OrderLineOutcome.rejected(i, new ResourceNotFoundException("Product not found with id: " + productId));
+                }
+                continue;
+            }
+
+            // one conditional update for all lines of this product, if another order got in between
+            // re-read the stock once and retry with the lines that still fit.
+            // the row's stock is stale while the inventory ledger owns it, so it is asked first
+            int stock = stockReservationService.available(productId);
+            Set<Integer> accepted = fitInArrivalOrder(lines, entry.getValue(), stock);
+            if (!accepted.isEmpty() && !stockReservationService.tryReserve(productId, totalQuantity(lines, accepted))) {
+                stock = stockReservationService.available(productId);
+                accepted = fitInArrivalOrder(lines, entry.getValue(), stock);
+                if (!accepted.isEmpty() && !stockReservationService.tryReserve(productId, totalQuantity(lines, accepted))) {
+                    accepted = Set.of();
+                }
+            }
+            // what the rejected lines could still have had, after this batch's own reservation
+            int left = stock - totalQuantity(lines, accepted);
+
+            for (int i : entry.getValue()) {
+                if (!accepted.contains(i)) {
+                    orderMetrics.outcome(productId, OrderMetrics.INSUFFICIENT_STOCK);
+                    outcomes[i] = OrderLineOutcome.rejected(i, new InsufficientStockException("Only " + left + " items left in stock"));
+                    continue;
+                }
+                OrderLineRequest line = lines.get(i);
+                Order order = new Order(line.userId(), line.quantity(), product.getPrice().times(line.quantity()),
+                        OrderStatus.PENDING, now, product);
+                orders.add(order);
+                outcomes[i] = OrderLineOutcome.reserved(i, order);
+            }
         }
 
-        Order order = new Order();
-        order.setUserId(userId);
-        order.setQuantity(quantity);
-        order.setProduct(product);
-        order.setCreatedAt(LocalDateTime.now());
-        order.setTotalAmount(product.getPrice() * quantity);
-        order.setStatus(paymentSuccess ? OrderStatus.PLACED : OrderStatus.FAILED);
+        // sequence ids plus hibernate.jdbc.batch_size turn this into batched inserts
+        orderMetrics.time(OrderMetrics.ORDER_INSERT, () -> orderRepository.saveAllAndFlush(orders));
+        orderEventOutbox.record(OrderEventType.CREATED, orders.stream().map(OrderView::from).toList());
+        return Arrays.asList(outcomes);
+    }
+
+    @Override
+    @Transactional
+    public Order placeCartOrder(String userId, Map<Long, Integer> items) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        if (!orderMetrics.time(OrderMetrics.USER_LOOKUP, () -> userExistenceCache.exists(userId))) {
+            throw new UserNotFoundException("User not found: " + userId);
+        }
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty");
+        }
+
+        // products in id order, so two carts sharing products always take their row locks in the same order
+        TreeMap<Long, Integer> sorted = new TreeMap<>(items);
+        for (int quantity : sorted.values()) {
+            if (quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be greater than zero");
+            }
+        }
+        Map<Long, Product> products = productRepository.findAllById(sorted.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Money total = null;
+        int units = 0;
+        for (Map.Entry<Long, Integer> item : sorted.entrySet()) {
+            Product product = products.get(item.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id: " + item.getKey());
+            }
+            Money lineTotal = product.getPrice().times(item.getValue());
+            if (total != null && !total.currency().equals(lineTotal.currency())) {
+                throw new IllegalArgumentException("Cart items must all be priced in the same currency");
+            }
+            total = total == null ? lineTotal : total.plus(lineTotal);
+            units += item.getValue();
+        }
 
-        return orderRepository.save(order);
+        // a shortfall on any product rolls back the reservations made before it
+        for (Map.Entry<Long, Integer> item : sorted.entrySet()) {
+            try {
+                stockReservationService.reserve(item.getKey(), item.getValue());
+            } catch (InsufficientStockException ex) {
+                throw new InsufficientStockException(products.get(item.getKey()).getName() + ": " + ex.getMessage());
+            }
+        }
+
+        // the order takes its pooled id on save, the lines need it for their key
+        Order order = orderRepository.save(new Order(userId, units, total, OrderStatus.PENDING, LocalDateTime.now(), null));
+        int lineNo = 0;
+        for (Map.Entry<Long, Integer> item : sorted.entrySet()) {
+            Product product = products.get(item.getKey());
+            order.getLines().add(new OrderLine(order, ++lineNo, product, item.getValue(), product.getPrice()));
+        }
+        // a plain flush: merging the order again would treat the lines, whose ids are already set, as detached
+        orderMetrics.time(OrderMetrics.ORDER_INSERT, () -> {
+            orderRepository.flush();
+            return order;
+        });
+        orderEventOutbox.record(OrderEventType.CREATED, OrderView.from(order).withLines(lineViews(order.getLines())));
+        return order;
+    }
+
+    @Override
+    @Transactional
+    public Order confirmOrder(Long orderId) {
+        // claimed with a conditional update, so of a late payment and the pending sweeper only one acts on the order
+        boolean claimed = orderRepository.updateStatus(List.of(orderId), OrderStatus.PENDING, OrderStatus.PLACED) == 1;
+        Order order = findOrder(orderId);
+        if (claimed) {
+            order.setStatus(OrderStatus.PLACED);
+            if (order.getProduct() != null) {
+                OrderView placed = OrderView.from(order);
+                orderEventOutbox.record(OrderEventType.PLACED, placed);
+            } else {
+                OrderView placed = OrderView.from(order).withLines(lineViews(orderLineRepository.findWithProductByOrderId(orderId)));
+                // the lines go with the event, the sales aggregates count each product from them
+                orderEventOutbox.record(OrderEventType.PLACED, placed);
+            }
+        }
+        return order;
     }
 
     @Override
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    @Transactional
+    public int confirmOrders(Collection<Long> orderIds) {
+        // only paid orders are confirmed and only unpaid ones released, so nothing moves these rows in between
+        List<OrderView> pending = orderRepository.findViews(orderIds, OrderStatus.PENDING);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        int confirmed = orderRepository.updateStatus(orderIds, OrderStatus.PENDING, OrderStatus.PLACED);
+        List<OrderView> placed = pending.stream().map(view -> view.withStatus(OrderStatus.PLACED)).toList();
+        orderEventOutbox.record(OrderEventType.PLACED, placed);
+        return confirmed;
+    }
+
+    @Override
+    @Transactional
+    public Order releaseOrder(Long orderId) {
+        // only a pending order still holds stock, and only the caller that moves it out of PENDING gives the stock
+        // back, so a repeated release, or a payment failure racing the pending sweeper, returns it once
+        boolean claimed = orderRepository.updateStatus(List.of(orderId), OrderStatus.PENDING, OrderStatus.FAILED) == 1;
+        Order order = findOrder(orderId);
+        if (claimed) {
+            order.setStatus(OrderStatus.FAILED);
+            if (order.getProduct() != null) {
+                stockReservationService.release(order.getProduct().getId(), order.getQuantity());
+                orderEventOutbox.record(OrderEventType.FAILED, OrderView.from(order));
+            } else {
+                List<OrderLineView> lines = lineViews(orderLineRepository.findWithProductByOrderId(orderId));
+                for (OrderLineView line : lines) {
+                    stockReservationService.release(line.productId(), line.quantity());
+                }
+                orderEventOutbox.record(OrderEventType.FAILED, OrderView.from(order).withLines(lines));
+            }
+        }
+        return order;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPage getOrders(OrderQuery query, String cursor, int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        OrderCursor after = cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+
+        // fetch one extra row to know whether another page exists
+        List<OrderView> rows = orderRepository.findPage(query.userId(), query.status(), query.from(), query.to(),
+                after == null ? null : after.createdAt(), after == null ? null : after.id(), Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return new OrderPage(rows, null);
+        }
+        List<OrderView> page = rows.subList(0, limit);
+        OrderView last = page.get(limit - 1);
+        return new OrderPage(page, new OrderCursor(last.createdAt(), last.id()).encode());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachOrder(OrderQuery query, Consumer<OrderView> consumer) {
+        // projections are not managed entities, so nothing piles up in the persistence context
+        try (Stream<OrderView> orders = orderRepository.streamOrders(query.userId(), query.status(), query.from(), query.to())) {
+            orders.forEach(consumer);
+        }
+    }
+
+    private static List<OrderLineView> lineViews(List<OrderLine> lines) {
+        return lines.stream().map(OrderLineView::from).toList();
+    }
+
+    private static Set<Integer> fitInArrivalOrder(List<OrderLineRequest> lines, List<Integer> candidates, int stock) {
+        Set<Integer> accepted = new HashSet<>();
+        int left = stock;
+        for (int i : candidates) {
+            int quantity = lines.get(i).quantity();
+            if (quantity <= left) {
+                accepted.add(i);
+                left -= quantity;
+            }
+        }
+        return accepted;
+    }
+
+    private static int totalQuantity(List<OrderLineRequest> lines, Set<Integer> accepted) {
+        int total = 0;
+        for (int i : accepted) {
+            total += lines.get(i).quantity();
+        }
+        return total;
+    }
+
+    private Order findOrder(Long orderId) {
+        return orderRepository.findWithProductById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
     }
 
 }
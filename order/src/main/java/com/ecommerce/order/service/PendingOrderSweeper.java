@@ -0,0 +1,77 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.payment.PaymentGateway;
+import com.ecommerce.order.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Settles orders left PENDING for longer than order.pending.timeout-minutes: the process died while the payment
+// was in flight, or confirming or releasing failed after it, or the write-behind writer is still retrying.
+// The payment gateway is asked first: an order whose charge was captured is confirmed, only an unpaid one gets
+// its stock back and ends FAILED. When the gateway cannot answer, the order is left for the next sweep.
+// The timeout has to be longer than the slowest payment, a payment that completes after its order was swept
+// finds it FAILED and cannot place it any more.
+@Component
+public class PendingOrderSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingOrderSweeper.class);
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final PaymentGateway paymentGateway;
+    private final Duration timeout;
+    private final int batchSize;
+    private final Counter expired;
+    private final Counter recovered;
+
+    public PendingOrderSweeper(OrderRepository orderRepository, OrderService orderService, PaymentGateway paymentGateway,
+                               MeterRegistry meterRegistry,
+                               @Value("${order.pending.timeout-minutes:15}") long timeoutMinutes,
+                               @Value("${order.pending.sweep-batch-size:500}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.paymentGateway = paymentGateway;
+        this.timeout = Duration.ofMinutes(timeoutMinutes);
+        this.batchSize = batchSize;
+        this.expired = meterRegistry.counter("order.pending.expired");
+        this.recovered = meterRegistry.counter("order.pending.recovered");
+    }
+
+    // each order is settled in its own transaction, so one that fails does not hold back the rest
+    @Scheduled(fixedDelayString = "${order.pending.sweep-interval-ms:60000}")
+    public void sweep() {
+        List<Long> stale = orderRepository.findIdsCreatedBefore(OrderStatus.PENDING, LocalDateTime.now().minus(timeout),
+                Limit.of(batchSize));
+        for (Long orderId : stale) {
+            try {
+                settle(orderId);
+            } catch (RuntimeException e) {
+                log.error("Could not settle stale order {}", orderId, e);
+            }
+        }
+    }
+
+    private void settle(Long orderId) {
+        // a lookup that fails throws, and the order stays PENDING rather than losing a payment
+        if (paymentGateway.isCaptured(orderId).join()) {
+            if (orderService.confirmOrder(orderId).getStatus() == OrderStatus.PLACED) {
+                recovered.increment();
+                log.warn("Confirmed order {}, it was paid but still PENDING after {}", orderId, timeout);
+            }
+        } else if (orderService.releaseOrder(orderId).getStatus() == OrderStatus.FAILED) {
+            expired.increment();
+            log.warn("Released order {}, it was still PENDING after {}", orderId, timeout);
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.ecommerce.order.service;
 
+import com.ecommerce.order.dto.ProductView;
 import com.ecommerce.order.model.Product;
 
+import java.util.List;
+
 public interface ProductService {
 
-    Product updateProduct(Long id, Product updatedProduct);
+    // fails with VersionConflictException unless the product is still at expectedVersion
+    Product updateProduct(Long id, Product updatedProduct, long expectedVersion);
 
+    List<ProductView> getAllProducts();
 
 }
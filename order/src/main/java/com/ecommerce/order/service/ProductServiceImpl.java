@@ -1,27 +1,63 @@
 package com.ecommerce.order.service;
 
-import com.ecommerce.order.exception.ResourceNotFoundException;
+import com.ecommerce.order.cache.ProductCatalogCache;
+import com.ecommerce.order.common.exception.ResourceNotFoundException;
+import com.ecommerce.order.common.exception.VersionConflictException;
+import com.ecommerce.order.dto.ProductView;
+import com.ecommerce.order.inventory.InventoryLedger;
 import com.ecommerce.order.model.Product;
 import com.ecommerce.order.repository.ProductRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 @Service
 public class ProductServiceImpl implements ProductService{
     private final ProductRepository productRepo;
+    private final ProductCatalogCache catalogCache;
+    private final InventoryLedger inventoryLedger;
 
-    public ProductServiceImpl(ProductRepository productRepo) {
+    public ProductServiceImpl(ProductRepository productRepo, ProductCatalogCache catalogCache,
+                              InventoryLedger inventoryLedger) {
         this.productRepo = productRepo;
+        this.catalogCache = catalogCache;
+        this.inventoryLedger = inventoryLedger;
     }
 
     public Product saveProduct(Product product) {
-        return productRepo.save(product);
+        // a new row always starts at the first version, whatever the body said
+        product.setVersion(null);
+        Product saved = productRepo.save(product);
+        catalogCache.invalidate(saved.getId());
+        return saved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductView> getAllProducts() {
+        List<ProductView> products = catalogCache.listProducts();
+        if (!inventoryLedger.isEnabled()) {
+            return products;
+        }
+        // the ledger is ahead of the stock column until its next flush
+        List<ProductView> current = new ArrayList<>(products.size());
+        for (ProductView product : products) {
+            OptionalInt stock = inventoryLedger.peek(product.id());
+            current.add(stock.isPresent()
+                    ? new ProductView(product.id(), product.name(), product.price(), stock.getAsInt())
+                    : product);
+        }
+        return current;
     }
 
     @Override
-    public Product updateProduct(Long id, Product updatedProduct) {
+    @Transactional
+    public Product updateProduct(Long id, Product updatedProduct, long expectedVersion) {
         Optional<Product> existingProduct = productRepo.findById(id);
 
         if (existingProduct.isEmpty()) {
@@ -29,12 +65,40 @@ public class ProductServiceImpl implements ProductService{
         }
 
         Product product = existingProduct.get();
+        // every order bumps the version, so a stock value read before one of them is refused instead of
+        // overwriting its decrement. no retry: only the client can decide what the stock should be now
+        if (product.getVersion() != expectedVersion) {
+            throw versionConflict(id, product.getVersion(), expectedVersion);
+        }
+        if (inventoryLedger.isEnabled()) {
+            // the ledger owns the stock, so only name and price go to the row and the flush writes the stock
+            LocalDateTime now = LocalDateTime.now();
+            if (productRepo.updateDetails(id, updatedProduct.getName(), updatedProduct.getPrice(), expectedVersion, now) == 0) {
+                throw versionConflict(id, productRepo.findById(id).map(Product::getVersion).orElse(null), expectedVersion);
+            }
+            inventoryLedger.set(id, updatedProduct.getStock());
+            catalogCache.invalidate(id);
+            product.setName(updatedProduct.getName());
+            product.setPrice(updatedProduct.getPrice());
+            product.setStock(updatedProduct.getStock());
+            product.setUpdatedDate(now);
+            product.setVersion(expectedVersion + 1);
+            return product;
+        }
+        // saved with the checked version, an order committing in between still fails the update with a conflict
         product.setName(updatedProduct.getName());
         product.setPrice(updatedProduct.getPrice());
         product.setStock(updatedProduct.getStock());
         product.setUpdatedDate(LocalDateTime.now());
 
+        // evicted once this transaction commits, so readers never re-cache the old price
+        catalogCache.invalidate(id);
         return productRepo.save(product);
     }
 
-}
\ No newline at end of file
+    private static VersionConflictException versionConflict(Long id, Long current, long expected) {
+        return new VersionConflictException("Product " + id + " is at version " + current + ", not " + expected
+                + "; read it again before updating");
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.analytics.SalesWindow;
+import com.ecommerce.order.dto.ProductSalesView;
+import com.ecommerce.order.dto.UserDailySalesView;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesAnalyticsService {
+    // all-time totals per product, from the aggregate table
+    List<ProductSalesView> getProductSales();
+    // per user and day, every filter optional, from and to inclusive
+    List<UserDailySalesView> getUserDailySales(String userId, LocalDate from, LocalDate to, int limit);
+    // in-memory totals of this instance over the window
+    List<ProductSalesView> getRecentProductSales(SalesWindow window);
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.analytics.RollingSales;
+import com.ecommerce.order.analytics.SalesWindow;
+import com.ecommerce.order.cache.CatalogEntry;
+import com.ecommerce.order.cache.ProductCatalogCache;
+import com.ecommerce.order.dto.ProductSalesView;
+import com.ecommerce.order.dto.UserDailySalesView;
+import com.ecommerce.order.repository.ProductSalesRepository;
+import com.ecommerce.order.repository.UserDailySalesRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class SalesAnalyticsServiceImpl implements SalesAnalyticsService {
+
+    static final int MAX_DAILY_ROWS = 1000;
+
+    private final ProductSalesRepository productSalesRepository;
+    private final UserDailySalesRepository userDailySalesRepository;
+    private final RollingSales rollingSales;
+    private final ProductCatalogCache productCatalogCache;
+
+    public SalesAnalyticsServiceImpl(ProductSalesRepository productSalesRepository,
+                                     UserDailySalesRepository userDailySalesRepository, RollingSales rollingSales,
+                                     ProductCatalogCache productCatalogCache) {
+        this.productSalesRepository = productSalesRepository;
+        this.userDailySalesRepository = userDailySalesRepository;
+        this.rollingSales = rollingSales;
+        this.productCatalogCache = productCatalogCache;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSalesView> getProductSales() {
+        return productSalesRepository.findAllViews();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDailySalesView> getUserDailySales(String userId, LocalDate from, LocalDate to, int limit) {
+        if (limit <= 0 || limit > MAX_DAILY_ROWS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_DAILY_ROWS);
+        }
+        return userDailySalesRepository.findViews(userId, from, to, Limit.of(limit));
+    }
+
+    @Override
+    public List<ProductSalesView> getRecentProductSales(SalesWindow window) {
+        return rollingSales.snapshot(window, System.currentTimeMillis()).stream()
+                .map(sales -> sales.withProductName(productCatalogCache.find(sales.productId())
+                        .map(CatalogEntry::name).orElse(null)))
+                .toList();
+    }
+}
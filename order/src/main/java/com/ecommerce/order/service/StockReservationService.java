@@ -0,0 +1,17 @@
+package com.ecommerce.order.service;
+
+public interface StockReservationService {
+
+    // deducts stock for one product or throws InsufficientStockException
+    void reserve(Long productId, int quantity);
+
+    // same as reserve but reports a shortfall as false, so callers inside a transaction can recover
+    boolean tryReserve(Long productId, int quantity);
+
+    // gives back stock taken by a reservation that will not be confirmed
+    void release(Long productId, int quantity);
+
+    // stock left now: the ledger's while it owns the stock, the row's otherwise
+    int available(Long productId);
+
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.common.exception.InsufficientStockException;
+import com.ecommerce.order.inventory.InventoryLedger;
+import com.ecommerce.order.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final OrderMetrics orderMetrics;
+    private final InventoryLedger inventoryLedger;
+
+    public StockReservationServiceImpl(ProductRepository productRepository, OrderMetrics orderMetrics,
+                                       InventoryLedger inventoryLedger) {
+        this.productRepository = productRepository;
+        this.orderMetrics = orderMetrics;
+        this.inventoryLedger = inventoryLedger;
+    }
+
+    @Override
+    @Transactional
+    public void reserve(Long productId, int quantity) {
+        if (!tryReserve(productId, quantity)) {
+            int left = available(productId);
+            orderMetrics.outcome(productId, OrderMetrics.INSUFFICIENT_STOCK);
+            throw new InsufficientStockException("Only " + left + " items left in stock");
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean tryReserve(Long productId, int quantity) {
+        if (inventoryLedger.isEnabled()) {
+            // the ledger owns the stock, no row lock here
+            return inventoryLedger.tryReserve(productId, quantity);
+        }
+        // the conditional update serializes on the row lock, which the database can see in a deadlock.
+        // no JVM lock around it: a batch, cart or coalesced transaction holds the row locks of the products
+        // it already reserved, and a JVM lock waiting behind them would close a cycle the database cannot detect
+        long start = System.nanoTime();
+        try {
+            return productRepository.decrementStock(productId, quantity, LocalDateTime.now()) > 0;
+        } finally {
+            orderMetrics.record(OrderMetrics.STOCK_UPDATE, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void release(Long productId, int quantity) {
+        if (inventoryLedger.isEnabled()) {
+            inventoryLedger.release(productId, quantity);
+            return;
+        }
+        productRepository.incrementStock(productId, quantity, LocalDateTime.now());
+    }
+
+    @Override
+    public int available(Long productId) {
+        if (inventoryLedger.isEnabled()) {
+            // the stock column is only the last flush
+            return inventoryLedger.available(productId);
+        }
+        return productRepository.findStockById(productId).orElse(0);
+    }
+}
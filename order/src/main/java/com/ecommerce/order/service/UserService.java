@@ -0,0 +1,17 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.UserView;
+import com.ecommerce.order.model.User;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserService {
+
+    User saveUser(User user);
+
+    List<UserView> getAllUsers();
+
+    Optional<UserView> getUser(String userId);
+
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.cache.UserExistenceCache;
+import com.ecommerce.order.dto.UserView;
+import com.ecommerce.order.model.User;
+import com.ecommerce.order.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class UserServiceImpl implements UserService {
+
+    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
+
+    public UserServiceImpl(UserRepository userRepository, UserExistenceCache userExistenceCache) {
+        this.userRepository = userRepository;
+        this.userExistenceCache = userExistenceCache;
+    }
+
+    @Override
+    public User saveUser(User user) {
+        User saved = userRepository.save(user);
+        userExistenceCache.remember(saved.getUserId());
+        return saved;
+    }
+
+    // read-only, so served by the read replica when one is configured
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserView> getAllUsers() {
+        return userRepository.findAllViews();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserView> getUser(String userId) {
+        return userRepository.findViewByUserId(userId);
+    }
+}
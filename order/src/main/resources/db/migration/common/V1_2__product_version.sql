@@ -0,0 +1,2 @@
+-- Optimistic locking on products; rows that predate it start at version 0.
+alter table products add column version bigint not null default 0;
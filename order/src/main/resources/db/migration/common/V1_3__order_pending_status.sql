@@ -0,0 +1,2 @@
+-- An order is PENDING between reserving its stock and the payment outcome.
+alter table orders modify column status enum ('FAILED','PENDING','PLACED');
@@ -0,0 +1,4 @@
+-- GET /order pages by (created_at, id), optionally narrowed to a user or a status.
+create index idx_orders_created_at_id on orders (created_at, id);
+create index idx_orders_user_created_at on orders (user_id, created_at, id);
+create index idx_orders_status_created_at on orders (status, created_at, id);
@@ -0,0 +1,12 @@
+-- First outcome of each Idempotency-Key on POST /order, replayed to retries until expires_at.
+create table idempotency_keys (
+    idempotency_key varchar(100) not null,
+    fingerprint varchar(64) not null,
+    response_status integer,
+    response_body text,
+    created_at datetime(6),
+    expires_at datetime(6),
+    primary key (idempotency_key)
+) engine=InnoDB;
+
+create index idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
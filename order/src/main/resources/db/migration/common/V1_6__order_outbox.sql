@@ -0,0 +1,13 @@
+-- Order events written in the order's transaction and relayed after commit.
+create table order_outbox (
+    id bigint not null,
+    order_id bigint,
+    type enum ('CREATED','FAILED','PLACED'),
+    payload text,
+    created_at datetime(6),
+    published_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_order_outbox_published_at_id on order_outbox (published_at, id);
+create index idx_order_outbox_created_at on order_outbox (created_at);
@@ -0,0 +1,38 @@
+-- Schema exactly as ddl-auto=update left it before migrations were introduced, constraint names included
+-- (products_chk_1 is the name MySQL gave the @Min(1) check Hibernate emitted without one).
+-- Existing databases are baselined at 1 and start with V1_1.
+
+create table products (
+    id bigint not null auto_increment,
+    created_date datetime(6),
+    name varchar(255) not null,
+    price float(53) not null,
+    stock integer not null,
+    updated_date datetime(6),
+    primary key (id),
+    constraint products_chk_1 check (stock>=1)
+) engine=InnoDB;
+
+create table user (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    user_id varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table user add constraint UKa3imlf41l37utmxiquukk8ajc unique (user_id);
+
+create table orders (
+    id bigint not null auto_increment,
+    created_at datetime(6),
+    quantity integer not null,
+    status enum ('FAILED','PLACED'),
+    total_amount float(53) not null,
+    user_id varchar(255),
+    product_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+alter table orders add constraint FKkp5k52qtiygd8jkag4hayd0qg foreign key (product_id) references products (id);
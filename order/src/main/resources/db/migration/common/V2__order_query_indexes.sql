@@ -0,0 +1,4 @@
+-- GET /order?userId=&status= and per-product reads, both ordered by (created_at, id) like the keyset page.
+-- idx_orders_product_created_at also backs the product foreign key, so MySQL drops its implicit foreign key index
+create index idx_orders_user_status_created_at on orders (user_id, status, created_at, id);
+create index idx_orders_product_created_at on orders (product_id, created_at, id);
@@ -0,0 +1,16 @@
+-- Prices and totals move from float(53) to integer minor units plus an ISO 4217 currency code.
+-- Every existing amount was in USD, which has two decimals.
+
+alter table products add column price_minor bigint;
+alter table products add column price_currency varchar(3);
+update products set price_minor = round(price * 100), price_currency = 'USD';
+alter table products modify column price_minor bigint not null;
+alter table products modify column price_currency varchar(3) not null;
+alter table products drop column price;
+
+alter table orders add column total_minor bigint;
+alter table orders add column total_currency varchar(3);
+update orders set total_minor = round(total_amount * 100), total_currency = 'USD';
+alter table orders modify column total_minor bigint not null;
+alter table orders modify column total_currency varchar(3) not null;
+alter table orders drop column total_amount;
@@ -0,0 +1,37 @@
+-- Sales totals kept up to date when orders are confirmed, so analytics read one row per product
+-- or per user and day instead of scanning orders. Backfilled from the orders placed so far.
+
+create table product_sales (
+    product_id bigint not null,
+    currency varchar(3) not null,
+    orders bigint not null,
+    units bigint not null,
+    revenue_minor bigint not null,
+    updated_at datetime(6),
+    primary key (product_id, currency)
+) engine=InnoDB;
+
+create table user_daily_sales (
+    user_id varchar(255) not null,
+    sales_day date not null,
+    currency varchar(3) not null,
+    orders bigint not null,
+    units bigint not null,
+    revenue_minor bigint not null,
+    updated_at datetime(6),
+    primary key (user_id, sales_day, currency)
+) engine=InnoDB;
+
+create index idx_user_daily_sales_day on user_daily_sales (sales_day, user_id);
+
+insert into product_sales (product_id, currency, orders, units, revenue_minor, updated_at)
+select product_id, total_currency, count(*), sum(quantity), sum(total_minor), current_timestamp
+from orders
+where status = 'PLACED' and product_id is not null
+group by product_id, total_currency;
+
+insert into user_daily_sales (user_id, sales_day, currency, orders, units, revenue_minor, updated_at)
+select user_id, cast(created_at as date), total_currency, count(*), sum(quantity), sum(total_minor), current_timestamp
+from orders
+where status = 'PLACED' and user_id is not null and created_at is not null
+group by user_id, cast(created_at as date), total_currency;
@@ -0,0 +1,16 @@
+-- A cart checkout is one order with a line per product. Single-product orders keep product_id and
+-- have no lines; a cart order leaves product_id null and its quantity and total sum the lines.
+
+create table order_lines (
+    order_id bigint not null,
+    line_no int not null,
+    product_id bigint not null,
+    quantity int not null,
+    unit_price_minor bigint not null,
+    unit_price_currency varchar(3) not null,
+    primary key (order_id, line_no),
+    constraint fk_order_lines_order foreign key (order_id) references orders (id),
+    constraint fk_order_lines_product foreign key (product_id) references products (id)
+) engine=InnoDB;
+
+create index idx_order_lines_product on order_lines (product_id);
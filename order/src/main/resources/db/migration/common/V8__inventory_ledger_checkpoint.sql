@@ -0,0 +1,8 @@
+-- Last journal segment covered by the inventory ledger's stock snapshot, one row per ledger. Written in the
+-- flush transaction with the stock, so a restart never replays a segment the stock column already includes.
+create table inventory_ledger_checkpoint (
+    ledger varchar(100) not null,
+    segment_sequence bigint not null,
+    updated_at datetime(6),
+    primary key (ledger)
+) engine=InnoDB;
@@ -0,0 +1,15 @@
+-- The event stream follows the order in which the relay published events. Outbox ids are handed out before
+-- commit, so a transaction that commits late lands behind a cursor that already moved past its id.
+-- The relay numbers each batch from the single row below and holds its lock until commit, so publish_seq
+-- values become visible in the order they were handed out. Rows published before this keep their id.
+alter table order_outbox add column publish_seq bigint;
+update order_outbox set publish_seq = id where published_at is not null;
+create index idx_order_outbox_publish_seq on order_outbox (publish_seq);
+
+create table order_outbox_publish_seq (
+    id integer not null,
+    last_seq bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+insert into order_outbox_publish_seq (id, last_seq) select 1, coalesce(max(publish_seq), 0) from order_outbox;
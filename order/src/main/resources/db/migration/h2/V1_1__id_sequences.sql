@@ -0,0 +1,5 @@
+-- Same as the MySQL migration; increments match allocationSize on the entities
+alter table orders alter column id drop identity;
+
+create sequence orders_seq start with 1 increment by 50;
+create sequence order_outbox_seq start with 1 increment by 50;
@@ -0,0 +1,2 @@
+-- Same as the MySQL migration: stock may reach 0
+alter table products drop constraint if exists products_chk_1;
@@ -0,0 +1,7 @@
+-- Same as the MySQL migration: a baselined database already holds ids the sequences would hand out again.
+-- The pooled optimizer hands out the 50 ids below the value it reads, so start 50 past the highest id in use.
+create sequence if not exists orders_seq start with 1 increment by 50;
+alter sequence orders_seq restart with (select coalesce(max(id), 0) + 51 from orders);
+
+create sequence if not exists order_outbox_seq start with 1 increment by 50;
+alter sequence order_outbox_seq restart with (select coalesce(max(id), 0) + 51 from order_outbox);
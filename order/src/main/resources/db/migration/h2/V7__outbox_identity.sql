@@ -0,0 +1,4 @@
+-- Same as the MySQL migration: outbox ids come from an identity column in insert order, not from pooled blocks.
+alter table order_outbox alter column id bigint generated by default as identity;
+alter table order_outbox alter column id restart with (select coalesce(max(id), 0) + 1 from order_outbox);
+drop sequence order_outbox_seq;
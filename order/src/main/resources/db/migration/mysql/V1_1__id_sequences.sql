@@ -0,0 +1,9 @@
+-- Order ids move from auto_increment to orders_seq, so a batch of orders can be inserted with ids known up front.
+-- MySQL has no sequences, Hibernate emulates orders_seq and order_outbox_seq with one-row tables.
+alter table orders modify id bigint not null;
+
+create table orders_seq (next_val bigint) engine=InnoDB;
+insert into orders_seq values (1);
+
+create table order_outbox_seq (next_val bigint) engine=InnoDB;
+insert into order_outbox_seq values (1);
@@ -0,0 +1,3 @@
+-- The @Min(1) on Product.stock became a check constraint, which refuses the update that sells the last unit.
+-- Stock at 0 is valid; the conditional decrement already keeps it from going negative.
+alter table products drop check products_chk_1;
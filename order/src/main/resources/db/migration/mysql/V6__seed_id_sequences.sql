@@ -0,0 +1,10 @@
+-- V1_1 starts the sequences at 1, but a baselined database already holds orders with auto_increment ids,
+-- so the next ids would collide with existing rows.
+-- The pooled optimizer hands out the 50 ids below the value it reads, so start 50 past the highest id in use.
+create table if not exists orders_seq (next_val bigint) engine=InnoDB;
+insert into orders_seq (next_val) select 1 from dual where not exists (select * from orders_seq);
+update orders_seq set next_val = greatest(next_val, (select coalesce(max(id), 0) + 51 from orders));
+
+create table if not exists order_outbox_seq (next_val bigint) engine=InnoDB;
+insert into order_outbox_seq (next_val) select 1 from dual where not exists (select * from order_outbox_seq);
+update order_outbox_seq set next_val = greatest(next_val, (select coalesce(max(id), 0) + 51 from order_outbox));
@@ -0,0 +1,5 @@
+-- The event stream tails order_outbox by id. Pooled blocks hand each instance its own range of ids, so a
+-- later event could get a smaller id than one already streamed. auto_increment assigns ids in insert order.
+-- MySQL continues the counter after the highest id in the table.
+alter table order_outbox modify id bigint not null auto_increment;
+drop table order_outbox_seq;
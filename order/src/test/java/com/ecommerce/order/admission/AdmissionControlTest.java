@@ -0,0 +1,87 @@
+package com.ecommerce.order.admission;
+
+import com.ecommerce.order.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testTokenBucketAllowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(2, 10, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        // 10 tokens per second, the next one is 100 ms away
+        assertEquals(100 * MS, bucket.tryAcquire(0));
+        assertEquals(50 * MS, bucket.tryAcquire(50 * MS));
+        assertEquals(0, bucket.tryAcquire(100 * MS));
+        // a long idle time refills up to the burst only
+        assertEquals(0, bucket.tryAcquire(10_000 * MS));
+        assertEquals(0, bucket.tryAcquire(10_000 * MS));
+        assertTrue(bucket.tryAcquire(10_000 * MS) > 0);
+    }
+
+    @Test
+    void testLimiterGrowsWhenFastAndBacksOffOncePerIntervalWhenSlow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 10, 100 * MS, 0.5, 0);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        // fast completions while at least half the limit is used add 1/limit each
+        for (int round = 0; round < 2; round++) {
+            if (round > 0) {
+                for (int i = 0; i < 4; i++) {
+                    limiter.tryAcquire();
+                }
+            }
+            for (int i = 0; i < 4; i++) {
+                limiter.release(10 * MS, 0);
+            }
+        }
+        assertEquals(5, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+
+        // a burst of slow completions halves the limit once, a later one again, never below the minimum
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire();
+        }
+        limiter.release(500 * MS, 1000 * MS);
+        limiter.release(500 * MS, 1010 * MS);
+        assertEquals(2, limiter.limit());
+        limiter.release(500 * MS, 1200 * MS);
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void testRejectedRequestsGetRetryAfterAndDoNotHoldAPermit() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdmissionControl admission = new AdmissionControl(meterRegistry, true, 0.5, 2, 1000, 1000,
+                1, 1, 1, 1000, 0.9);
+
+        AdmissionControl.Permit first = admission.admit("alice", 1L);
+        // the single slot is taken
+        TooManyRequestsException busy = assertThrows(TooManyRequestsException.class, () -> admission.admit("bob", 1L));
+        assertEquals(1, busy.getRetryAfterSeconds());
+        first.release();
+        first.release();
+
+        admission.admit("alice", 1L).release();
+        // alice's burst of 2 is spent, at 0.5 per second the next token is 2 seconds away
+        TooManyRequestsException limited = assertThrows(TooManyRequestsException.class, () -> admission.admit("alice", 1L));
+        assertEquals(2, limited.getRetryAfterSeconds());
+        admission.admit("bob", 1L).release();
+
+        assertEquals(0, meterRegistry.get("order.admission.in_flight").gauge().value());
+        assertEquals(1, meterRegistry.get("order.admission.rejected").tag("reason", "concurrency").counter().count());
+        assertEquals(1, meterRegistry.get("order.admission.rejected").tag("reason", "user").counter().count());
+    }
+}
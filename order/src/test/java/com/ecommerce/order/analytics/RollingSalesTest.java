@@ -0,0 +1,46 @@
+package com.ecommerce.order.analytics;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.dto.ProductSalesView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollingSalesTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final RollingSales rollingSales = new RollingSales();
+
+    @Test
+    void testWindowsOnlyCountRecentBuckets() {
+        long start = 1_000 * MINUTE;
+        rollingSales.add(1L, Money.DEFAULT_CURRENCY, 1, 2, 2000, start);
+        rollingSales.add(1L, Money.DEFAULT_CURRENCY, 1, 1, 1000, start + 3 * MINUTE);
+        rollingSales.add(2L, Money.DEFAULT_CURRENCY, 1, 5, 500, start + 50 * MINUTE);
+        long now = start + 50 * MINUTE + 1_000;
+
+        assertEquals(List.of(new ProductSalesView(2L, null, 1, 5, Money.of("5.00"))),
+                rollingSales.snapshot(SalesWindow.ONE_MINUTE, now));
+        assertEquals(List.of(new ProductSalesView(2L, null, 1, 5, Money.of("5.00"))),
+                rollingSales.snapshot(SalesWindow.FIVE_MINUTES, now));
+        // best sellers first
+        assertEquals(List.of(new ProductSalesView(1L, null, 2, 3, Money.of("30.00")),
+                        new ProductSalesView(2L, null, 1, 5, Money.of("5.00"))),
+                rollingSales.snapshot(SalesWindow.ONE_HOUR, now));
+    }
+
+    @Test
+    void testSlotIsReusedOnceItsBucketLeavesTheRing() {
+        long start = 1_000 * MINUTE;
+        rollingSales.add(1L, Money.DEFAULT_CURRENCY, 1, 1, 100, start);
+        // same slot of both rings one full ring later
+        rollingSales.add(1L, Money.DEFAULT_CURRENCY, 1, 4, 400, start + 60 * MINUTE);
+
+        assertEquals(List.of(new ProductSalesView(1L, null, 1, 4, Money.of("4.00"))),
+                rollingSales.snapshot(SalesWindow.ONE_HOUR, start + 60 * MINUTE));
+        assertTrue(rollingSales.snapshot(SalesWindow.ONE_HOUR, start + 121 * MINUTE).isEmpty());
+    }
+}
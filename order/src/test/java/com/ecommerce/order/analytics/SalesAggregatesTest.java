@@ -0,0 +1,86 @@
+package com.ecommerce.order.analytics;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderEventType;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.dto.OrderEvent;
+import com.ecommerce.order.dto.OrderLineView;
+import com.ecommerce.order.dto.OrderView;
+import com.ecommerce.order.dto.ProductSalesView;
+import com.ecommerce.order.dto.UserDailySalesView;
+import com.ecommerce.order.model.Product;
+import com.ecommerce.order.repository.ProductRepository;
+import com.ecommerce.order.repository.ProductSalesRepository;
+import com.ecommerce.order.repository.UserDailySalesRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// runs the upserts against H2 in MySQL mode
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sales;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SalesAggregates.class, RollingSales.class})
+public class SalesAggregatesTest {
+
+    @Autowired
+    private SalesAggregates salesAggregates;
+    @Autowired
+    private RollingSales rollingSales;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+    @Autowired
+    private UserDailySalesRepository userDailySalesRepository;
+
+    @Test
+    void testPlacedEventsAddUpPerProductAndPerUserDay() {
+        LocalDateTime now = LocalDateTime.now();
+        Long laptop = productRepository.save(new Product("Laptop", Money.of("999.99"), 10, now, now)).getId();
+        Long phone = productRepository.save(new Product("Phone", Money.of("0.10"), 10, now, now)).getId();
+
+        salesAggregates.publish(List.of(event(1L, OrderEventType.PLACED, placed(1L, "alice", laptop, 2, "1999.98", now)),
+                event(2L, OrderEventType.CREATED, placed(2L, "bob", phone, 3, "0.30", now)),
+                event(3L, OrderEventType.PLACED, placed(2L, "bob", phone, 3, "0.30", now))));
+        salesAggregates.publish(List.of(event(4L, OrderEventType.PLACED, placed(3L, "alice", laptop, 1, "999.99", now)),
+                event(5L, OrderEventType.FAILED, placed(5L, "alice", laptop, 1, "999.99", now)),
+                // a cart counts once for alice yesterday and once for the phone
+                event(6L, OrderEventType.PLACED, placed(4L, "alice", null, 1, "0.10", now.minusDays(1))
+                        .withLines(List.of(new OrderLineView(phone, "Phone", 1, Money.of("0.10"), Money.of("0.10")))))));
+
+        assertEquals(List.of(new ProductSalesView(laptop, "Laptop", 2, 3, Money.of("2999.97")),
+                        new ProductSalesView(phone, "Phone", 2, 4, Money.of("0.40"))),
+                productSalesRepository.findAllViews());
+        LocalDate today = now.toLocalDate();
+        assertEquals(List.of(new UserDailySalesView("alice", today, 2, 3, Money.of("2999.97")),
+                        new UserDailySalesView("alice", today.minusDays(1), 1, 1, Money.of("0.10"))),
+                userDailySalesRepository.findViews("alice", null, null, Limit.of(10)));
+        assertEquals(List.of(new UserDailySalesView("bob", today, 1, 3, Money.of("0.30"))),
+                userDailySalesRepository.findViews(null, today, today, Limit.of(10)).stream()
+                        .filter(row -> row.userId().equals("bob")).toList());
+        // the test transaction never commits, so the in-memory windows were not fed
+        assertTrue(rollingSales.snapshot(SalesWindow.ONE_HOUR, System.currentTimeMillis()).isEmpty());
+    }
+
+    private static OrderEvent event(Long id, OrderEventType type, OrderView order) {
+        return new OrderEvent(id, type, order, order.createdAt());
+    }
+
+    private static OrderView placed(Long id, String userId, Long productId, int quantity, String total, LocalDateTime createdAt) {
+        return new OrderView(id, userId, productId, null, quantity, Money.of(total), OrderStatus.PLACED, createdAt);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.dto.ProductView;
+import com.ecommerce.order.dto.UserView;
+import com.ecommerce.order.model.Product;
+import com.ecommerce.order.model.User;
+import com.ecommerce.order.service.ProductServiceImpl;
+import com.ecommerce.order.service.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two embedded databases: the primary is migrated by the application, the replica by the test.
+// They are never synchronised, so each read shows which one served it.
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "order.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+public class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+    }
+
+    @Test
+    void testWritesGoToPrimaryAndReadOnlyListingsToReplica() {
+        userService.saveUser(new User("primary-user", "Primary", "primary@example.com", "123456"));
+        new JdbcTemplate(replica).update("insert into user (user_id, name, email, password) values (?, ?, ?, ?)",
+                "replica-user", "Replica", "replica@example.com", "123456");
+
+        assertEquals(1, new JdbcTemplate(primary).queryForObject(
+                "select count(*) from user where user_id = 'primary-user'", Integer.class));
+        List<UserView> users = userService.getAllUsers();
+        assertEquals(List.of("replica-user"), users.stream().map(UserView::userId).toList());
+        assertTrue(userService.getUser("primary-user").isEmpty());
+    }
+
+    @Test
+    void testProductListingIsReadFromReplica() {
+        LocalDateTime now = LocalDateTime.now();
+        productService.saveProduct(new Product("On primary", Money.of("10.00"), 5, now, now));
+        new JdbcTemplate(replica).update("insert into products (name, price_minor, price_currency, stock, version) values (?, ?, ?, ?, 0)",
+                "On replica", 2000, "USD", 7);
+
+        List<ProductView> products = productService.getAllProducts();
+
+        assertEquals(List.of("On replica"), products.stream().map(ProductView::name).toList());
+    }
+}
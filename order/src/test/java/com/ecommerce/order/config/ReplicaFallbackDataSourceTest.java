@@ -0,0 +1,51 @@
+package com.ecommerce.order.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaFallbackDataSourceTest {
+
+    private final DataSource replica = mock(DataSource.class);
+    private final DataSource primary = mock(DataSource.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final Connection primaryConnection = mock(Connection.class);
+
+    @Test
+    void testReadsFromReplicaWhileItIsUp() throws Exception {
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        ReplicaFallbackDataSource dataSource = new ReplicaFallbackDataSource(replica, primary, 60_000, new SimpleMeterRegistry());
+
+        assertSame(replicaConnection, dataSource.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void testFallsBackToPrimaryAndSkipsReplicaUntilRetry() throws Exception {
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaFallbackDataSource dataSource = new ReplicaFallbackDataSource(replica, primary, 60_000, new SimpleMeterRegistry());
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertSame(primaryConnection, dataSource.getConnection());
+
+        // the second read did not wait on the replica again
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    void testRetriesReplicaOnceRetryTimeHasPassed() throws Exception {
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused")).thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaFallbackDataSource dataSource = new ReplicaFallbackDataSource(replica, primary, 0, new SimpleMeterRegistry());
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertSame(replicaConnection, dataSource.getConnection());
+    }
+}
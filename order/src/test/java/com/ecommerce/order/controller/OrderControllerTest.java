@@ -0,0 +1,87 @@
+package com.ecommerce.order.controller;
+
+import com.ecommerce.order.common.dto.OrderCursor;
+import com.ecommerce.order.dto.OrderPage;
+import com.ecommerce.order.events.OrderEventStream;
+import com.ecommerce.order.service.OrderCheckoutService;
+import com.ecommerce.order.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// bad paging and batch input is the client's fault and must come back as a 400 problem, not a 500
+@WebMvcTest(OrderController.class)
+public class OrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private OrderService orderService;
+    @MockitoBean
+    private OrderCheckoutService orderCheckoutService;
+    @MockitoBean
+    private OrderEventStream orderEventStream;
+
+    @Test
+    void testGetOrders_LimitOutOfRangeIsBadRequest() throws Exception {
+        when(orderService.getOrders(any(), any(), eq(0)))
+                .thenThrow(new IllegalArgumentException("Limit must be between 1 and 500"));
+
+        mockMvc.perform(get("/order").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.detail").value("Limit must be between 1 and 500"));
+    }
+
+    @Test
+    void testGetOrders_MalformedCursorIsBadRequest() throws Exception {
+        when(orderService.getOrders(any(), eq("not-a-cursor"), anyInt()))
+                .thenAnswer(invocation -> {
+                    OrderCursor.decode(invocation.getArgument(1));
+                    return new OrderPage(List.of(), null);
+                });
+
+        mockMvc.perform(get("/order").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Invalid cursor: not-a-cursor"));
+    }
+
+    @Test
+    void testPlaceOrders_OversizedBatchIsBadRequest() throws Exception {
+        when(orderCheckoutService.checkoutBatch(anyList()))
+                .thenThrow(new IllegalArgumentException("Batch cannot contain more than 500 order lines"));
+
+        mockMvc.perform(post("/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"userId\":\"u1\",\"productId\":1,\"quantity\":1}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Batch cannot contain more than 500 order lines"));
+    }
+
+    @Test
+    void testPlaceOrders_EmptyBatchIsBadRequest() throws Exception {
+        when(orderCheckoutService.checkoutBatch(anyList()))
+                .thenThrow(new IllegalArgumentException("Batch must contain at least one order line"));
+
+        mockMvc.perform(post("/orders/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Batch must contain at least one order line"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.order.events;
+
+import com.ecommerce.order.common.model.OrderEventType;
+import com.ecommerce.order.dto.OrderEvent;
+import com.ecommerce.order.model.OutboxEvent;
+import com.ecommerce.order.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// runs the relay's locking and numbering against H2 in MySQL mode
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class OutboxRelayTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void testRelayNumbersBatchesInPublishOrderAndStreamSeesOnlyPublishedRows() throws Exception {
+        List<OrderEvent> relayed = new ArrayList<>();
+        OutboxRelay relay = new OutboxRelay(outboxEventRepository,
+                new OrderEventOutbox(outboxEventRepository, new ObjectMapper().findAndRegisterModules()),
+                List.of(relayed::addAll), 2, 24);
+        long start = outboxEventRepository.findLastPublishSeq();
+        List<Long> ids = new ArrayList<>();
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            ids.add(outboxEventRepository.save(new OutboxEvent(orderId, OrderEventType.CREATED,
+                    "{\"id\":" + orderId + "}", LocalDateTime.now())).getId());
+        }
+
+        relay.relay();
+
+        // the third row is not published yet, so the stream does not see it
+        List<OutboxEvent> visible = outboxEventRepository.findPublishedAfter(start, Limit.of(10));
+        assertEquals(ids.subList(0, 2), visible.stream().map(OutboxEvent::getId).toList());
+        assertEquals(List.of(start + 1, start + 2), visible.stream().map(OutboxEvent::getPublishSeq).toList());
+
+        relay.relay();
+
+        assertEquals(start + 3, outboxEventRepository.findLastPublishSeq());
+        assertEquals(List.of(ids.get(2)), outboxEventRepository.findPublishedAfter(start + 2, Limit.of(10)).stream()
+                .map(OutboxEvent::getId).toList());
+        assertEquals(ids, relayed.stream().map(OrderEvent::id).toList());
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.order.exception;
+
+import com.ecommerce.order.common.exception.InsufficientStockException;
+import com.ecommerce.order.common.exception.PaymentFailedException;
+import com.ecommerce.order.common.exception.Problem;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void testBusinessExceptionsCaptureNoStackTrace() {
+        assertEquals(0, new InsufficientStockException("Only 0 items left in stock").getStackTrace().length);
+        assertEquals(0, new PaymentFailedException().getStackTrace().length);
+    }
+
+    @Test
+    void testStockErrorIsAProblem() {
+        ResponseEntity<Problem> response = handler.handleStockError(new InsufficientStockException("Only 2 items left in stock"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, response.getHeaders().getContentType());
+        assertEquals(new Problem("about:blank", "Bad Request", 400, "Only 2 items left in stock"), response.getBody());
+    }
+
+    @Test
+    void testPaymentFailureResponseIsShared() {
+        ResponseEntity<Problem> first = handler.handlePaymentFailed(new PaymentFailedException());
+        ResponseEntity<Problem> second = handler.handlePaymentFailed(new PaymentFailedException());
+
+        assertSame(first, second);
+        assertEquals(402, first.getBody().status());
+        assertEquals(PaymentFailedException.DEFAULT_MESSAGE, first.getBody().detail());
+    }
+
+    @Test
+    void testTooManyRequestsCarriesRetryAfter() {
+        ResponseEntity<Problem> response = handler.handleTooManyRequests(new TooManyRequestsException("Too many orders in progress, please retry", 3));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, response.getHeaders().getContentType());
+    }
+}
@@ -0,0 +1,189 @@
+package com.ecommerce.order.inventory;
+
+import com.ecommerce.order.model.InventoryLedgerCheckpoint;
+import com.ecommerce.order.repository.InventoryLedgerCheckpointRepository;
+import com.ecommerce.order.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class InventoryLedgerTest {
+
+    @TempDir
+    Path dir;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final InventoryLedgerCheckpointRepository checkpointRepository = mock(InventoryLedgerCheckpointRepository.class);
+    private final List<InventoryLedger> ledgers = new ArrayList<>();
+
+    // never flushes on its own, the tests call flush
+    private InventoryLedger start() throws Exception {
+        InventoryLedger ledger = new InventoryLedger(productRepository, checkpointRepository,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), true, "default", 8, TimeUnit.HOURS.toMillis(1), Long.MAX_VALUE, dir.toString(), false);
+        ledger.start();
+        ledgers.add(ledger);
+        return ledger;
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        for (InventoryLedger ledger : ledgers) {
+            ledger.stop();
+        }
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(1000));
+        InventoryLedger ledger = start();
+        AtomicInteger reserved = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        for (int t = 0; t < 16; t++) {
+            pool.submit(() -> {
+                while (ledger.tryReserve(1L, 1)) {
+                    reserved.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1000, reserved.get());
+        assertEquals(0, ledger.available(1L));
+    }
+
+    @Test
+    void testJournalIsReplayedAfterACrash() throws Exception {
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(100));
+        InventoryLedger crashed = start();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(crashed.tryReserve(1L, 10));
+        }
+        crashed.release(1L, 5);
+
+        // nothing was flushed, the database still says 100
+        InventoryLedger restarted = start();
+        assertEquals(75, restarted.available(1L));
+
+        restarted.flush();
+        verify(productRepository).setStock(eq(1L), eq(75), any());
+    }
+
+    @Test
+    void testSegmentsOfACommittedFlushAreNotReplayed() throws Exception {
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(100));
+        InventoryLedger crashed = start();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(crashed.tryReserve(1L, 10));
+        }
+
+        // a flush committed stock 70 with the first segments as its checkpoint, then the process died
+        // before it deleted them
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(70));
+        when(checkpointRepository.findById("default"))
+                .thenReturn(Optional.of(new InventoryLedgerCheckpoint("default", 1, LocalDateTime.now())));
+        InventoryLedger restarted = start();
+        assertEquals(70, restarted.available(1L));
+        assertFalse(Files.exists(dir.resolve("stripe-0-1.log")));
+
+        // changes after the restart are journaled past the checkpoint and replayed
+        assertTrue(restarted.tryReserve(1L, 5));
+        assertEquals(65, start().available(1L));
+    }
+
+    @Test
+    void testFlushWritesTheCheckpointOfTheSegmentsItCovers() throws Exception {
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(100));
+        InventoryLedger ledger = start();
+        assertTrue(ledger.tryReserve(1L, 10));
+
+        ledger.flush();
+
+        verify(productRepository).setStock(eq(1L), eq(90), any());
+        verify(checkpointRepository).save(argThat(checkpoint ->
+                checkpoint.getLedger().equals("default") && checkpoint.getSegmentSequence() == 1));
+    }
+
+    @Test
+    void testFlushDoesNotWaitForAProductBeingLoaded() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+        when(productRepository.findStockById(2L)).thenAnswer(invocation -> {
+            loading.countDown();
+            loaded.await();
+            return Optional.of(5);
+        });
+        InventoryLedger ledger = start();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<Boolean> reserved = pool.submit(() -> ledger.tryReserve(2L, 1));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // the database read of the new product holds no lock the snapshot needs
+        assertTimeoutPreemptively(Duration.ofSeconds(5), ledger::flush);
+
+        loaded.countDown();
+        assertTrue(reserved.get(5, TimeUnit.SECONDS));
+        assertEquals(4, ledger.available(2L));
+        pool.shutdown();
+    }
+
+    @Test
+    void testSetReplacesStockForLaterReservations() throws Exception {
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(10));
+        InventoryLedger ledger = start();
+        assertTrue(ledger.tryReserve(1L, 4));
+
+        ledger.set(1L, 3);
+
+        assertFalse(ledger.tryReserve(1L, 4));
+        assertTrue(ledger.tryReserve(1L, 3));
+        assertEquals(0, ledger.available(1L));
+        assertFalse(ledger.tryReserve(2L, 1));
+    }
+
+    @Test
+    void testSetInsideATransactionWaitsForTheCommit() throws Exception {
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(10));
+        InventoryLedger ledger = start();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.set(1L, 3);
+            assertEquals(10, ledger.available(1L));
+            // a rolled back update never reaches the ledger
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+            assertEquals(10, ledger.available(1L));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+            assertEquals(3, ledger.available(1L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
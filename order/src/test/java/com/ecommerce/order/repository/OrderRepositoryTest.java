@@ -0,0 +1,91 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.dto.OrderView;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compares listing orders as entities (old GET /order) with the OrderView projection
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class OrderRepositoryTest {
+
+    private static final int PRODUCTS = 5;
+    private static final int ORDERS = 200;
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @BeforeEach
+    void setup() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int p = 0; p < PRODUCTS; p++) {
+            Product product = productRepository.save(new Product("Product " + p, Money.ofMinor((100 + p) * 100L, Money.DEFAULT_CURRENCY), 1000, now, now));
+            for (int o = p; o < ORDERS; o += PRODUCTS) {
+                orderRepository.save(new Order("user" + (o % 7), 1, product.getPrice(), OrderStatus.PLACED,
+                        now.minusSeconds(o), product));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testProjectionListsOrdersInOneQueryWithSmallerPayload() throws Exception {
+        // before: entities, each distinct product loaded by its own query when it is serialized
+        List<Order> entities = orderRepository.findAll();
+        entities.forEach(order -> order.setProduct((Product) Hibernate.unproxy(order.getProduct())));
+        long entityQueries = statistics.getPrepareStatementCount();
+        int entityBytes = objectMapper.writeValueAsBytes(entities).length;
+
+        entityManager.clear();
+        statistics.clear();
+
+        // after: one joined projection query with only the listed columns
+        List<OrderView> views = orderRepository.findPage(null, null, null, null, null, null, Limit.of(ORDERS));
+        long viewQueries = statistics.getPrepareStatementCount();
+        int viewBytes = objectMapper.writeValueAsBytes(views).length;
+
+        System.out.printf("Listing %d orders: entities %d queries / %d bytes, projection %d queries / %d bytes%n",
+                ORDERS, entityQueries, entityBytes, viewQueries, viewBytes);
+        assertEquals(ORDERS, views.size());
+        assertEquals(1 + PRODUCTS, entityQueries);
+        assertEquals(1, viewQueries);
+        assertTrue(viewBytes < entityBytes);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.exception.IdempotencyConflictException;
+import com.ecommerce.order.model.IdempotencyKey;
+import com.ecommerce.order.repository.IdempotencyKeyRepository;
+import com.ecommerce.order.service.IdempotencyStore.StoredResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyStoreTest {
+
+    private final IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+
+    @Test
+    void testOpenClaimIsAnsweredLocallyWithinTheClaimTimeout() {
+        IdempotencyStore store = new IdempotencyStore(repository, new SimpleMeterRegistry(), 24, 300, 1000);
+        when(repository.findById("key-1")).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), store.claim("key-1", "fp"));
+        assertThrows(IdempotencyConflictException.class, () -> store.claim("key-1", "fp"));
+
+        verify(repository, times(1)).findById("key-1");
+    }
+
+    @Test
+    void testOpenClaimPastTheClaimTimeoutIsCheckedAgainstTheTable() {
+        // a claim left open after a failure must not keep answering 409 here for the whole ttl,
+        // once it times out the table lets this or another instance take it over
+        IdempotencyStore store = new IdempotencyStore(repository, new SimpleMeterRegistry(), 24, 0, 1000);
+        LocalDateTime now = LocalDateTime.now();
+        when(repository.findById("key-1")).thenReturn(Optional.empty(),
+                Optional.of(new IdempotencyKey("key-1", "fp", now, now.plusHours(24))), Optional.empty());
+        when(repository.deleteStaleClaim(eq("key-1"), any())).thenReturn(1);
+
+        assertEquals(Optional.empty(), store.claim("key-1", "fp"));
+        assertEquals(Optional.empty(), store.claim("key-1", "fp"));
+
+        verify(repository).deleteStaleClaim(eq("key-1"), any());
+        verify(repository, times(2)).saveAndFlush(any());
+    }
+
+    @Test
+    void testCompletedResponseIsKeptForTheTtl() {
+        IdempotencyStore store = new IdempotencyStore(repository, new SimpleMeterRegistry(), 24, 0, 1000);
+        when(repository.findById("key-1")).thenReturn(Optional.empty());
+
+        store.claim("key-1", "fp");
+        store.complete("key-1", "fp", new StoredResponse(200, "{\"id\":5}"));
+
+        assertEquals(Optional.of(new StoredResponse(200, "{\"id\":5}")), store.claim("key-1", "fp"));
+        verify(repository, times(1)).findById("key-1");
+    }
+}
@@ -0,0 +1,198 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.admission.AdmissionControl;
+import com.ecommerce.order.cache.ProductCatalogCache;
+import com.ecommerce.order.common.exception.InsufficientStockException;
+import com.ecommerce.order.common.exception.PaymentFailedException;
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.dto.OrderView;
+import com.ecommerce.order.exception.IdempotencyKeyReuseException;
+import com.ecommerce.order.exception.TooManyRequestsException;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.payment.PaymentGateway;
+import com.ecommerce.order.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OrderCheckoutServiceImplTest {
+
+    private OrderService orderService;
+    private PaymentGateway paymentGateway;
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    private IdempotencyStore idempotencyStore;
+    private OrderCoalescer orderCoalescer;
+    private OrderCheckoutServiceImpl checkoutService;
+    private Order pending;
+
+    @BeforeEach
+    void setup() {
+        orderService = mock(OrderService.class);
+        paymentGateway = mock(PaymentGateway.class);
+        idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        idempotencyStore = new IdempotencyStore(idempotencyKeyRepository, new SimpleMeterRegistry(), 24, 300, 100);
+        orderCoalescer = mock(OrderCoalescer.class);
+        checkoutService = checkoutService(admissionControl(false));
+
+        pending = new Order("pragnesh001", 2, Money.of("1000.00"), OrderStatus.PENDING, LocalDateTime.now(), null);
+        pending.setId(5L);
+        when(orderService.placeOrder(1L, "pragnesh001", 2)).thenReturn(pending);
+    }
+
+    @Test
+    void testCheckout_PaymentSucceeds() {
+        Order placed = new Order("pragnesh001", 2, Money.of("1000.00"), OrderStatus.PLACED, LocalDateTime.now(), null);
+        when(paymentGateway.charge(pending)).thenReturn(CompletableFuture.completedFuture(true));
+        when(orderService.confirmOrder(5L)).thenReturn(placed);
+
+        OrderView order = checkoutService.checkout(1L, "pragnesh001", 2).join();
+
+        assertEquals(OrderStatus.PLACED, order.status());
+        verify(orderService, never()).releaseOrder(any());
+    }
+
+    @Test
+    void testCheckout_PaymentDeclinedReleasesStock() {
+        when(paymentGateway.charge(pending)).thenReturn(CompletableFuture.completedFuture(false));
+
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> checkoutService.checkout(1L, "pragnesh001", 2).join());
+
+        assertInstanceOf(PaymentFailedException.class, thrown.getCause());
+        assertEquals("Payment failed. Order not placed.", thrown.getCause().getMessage());
+        verify(orderService).releaseOrder(5L);
+        verify(orderService, never()).confirmOrder(any());
+    }
+
+    @Test
+    void testCheckout_PaidOrderThatFailsToConfirmKeepsItsStock() {
+        when(paymentGateway.charge(pending)).thenReturn(CompletableFuture.completedFuture(true));
+        when(orderService.confirmOrder(5L)).thenThrow(new IllegalStateException("connection reset"));
+
+        assertThrows(CompletionException.class, () -> checkoutService.checkout(1L, "pragnesh001", 2).join());
+
+        // left PENDING for the sweeper, which finds the charge captured and confirms it
+        verify(orderService, never()).releaseOrder(any());
+    }
+
+    @Test
+    void testCheckout_GatewayErrorReleasesStock() {
+        when(paymentGateway.charge(pending)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("timeout")));
+
+        assertThrows(CompletionException.class, () -> checkoutService.checkout(1L, "pragnesh001", 2).join());
+
+        verify(orderService).releaseOrder(5L);
+    }
+
+    @Test
+    void testCheckout_InsufficientStockSkipsPayment() {
+        when(orderService.placeOrder(1L, "pragnesh001", 9))
+                .thenThrow(new InsufficientStockException("Only 2 items left in stock"));
+
+        assertThrows(InsufficientStockException.class, () -> checkoutService.checkout(1L, "pragnesh001", 9));
+
+        verifyNoInteractions(paymentGateway);
+    }
+
+    @Test
+    void testCheckout_RetryWithSameKeyReplaysFirstOutcome() {
+        Order placed = new Order("pragnesh001", 2, Money.of("1000.00"), OrderStatus.PLACED, LocalDateTime.now(), null);
+        placed.setId(5L);
+        when(paymentGateway.charge(pending)).thenReturn(CompletableFuture.completedFuture(true));
+        when(orderService.confirmOrder(5L)).thenReturn(placed);
+
+        OrderView first = checkoutService.checkout("key-1", 1L, "pragnesh001", 2).join();
+        OrderView retry = checkoutService.checkout("key-1", 1L, "pragnesh001", 2).join();
+
+        assertEquals(first, retry);
+        verify(orderService, times(1)).placeOrder(1L, "pragnesh001", 2);
+        verify(paymentGateway, times(1)).charge(any());
+        verify(idempotencyKeyRepository).complete(eq("key-1"), eq(200), anyString());
+    }
+
+    @Test
+    void testCheckout_KeyReusedForDifferentOrderIsRejected() {
+        when(paymentGateway.charge(pending)).thenReturn(CompletableFuture.completedFuture(false));
+        assertThrows(CompletionException.class, () -> checkoutService.checkout("key-2", 1L, "pragnesh001", 2).join());
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> checkoutService.checkout("key-2", 1L, "pragnesh001", 3));
+
+        verify(orderService, never()).placeOrder(1L, "pragnesh001", 3);
+    }
+
+    @Test
+    void testCheckout_ReplayIsNotCountedByAdmissionControl() {
+        // one order per user, and the bucket does not refill during the test
+        checkoutService = checkoutService(admissionControl(true));
+        Order placed = new Order("pragnesh001", 2, Money.of("1000.00"), OrderStatus.PLACED, LocalDateTime.now(), null);
+        placed.setId(5L);
+        when(paymentGateway.charge(pending)).thenReturn(CompletableFuture.completedFuture(true));
+        when(orderService.confirmOrder(5L)).thenReturn(placed);
+
+        OrderView first = checkoutService.checkout("key-3", 1L, "pragnesh001", 2).join();
+        OrderView retry = checkoutService.checkout("key-3", 1L, "pragnesh001", 2).join();
+        assertThrows(TooManyRequestsException.class, () -> checkoutService.checkout("key-4", 1L, "pragnesh001", 2));
+
+        assertEquals(first, retry);
+        // the rejected request gives its key back, a later retry with it is admitted normally
+        verify(idempotencyKeyRepository).deleteClaim("key-4");
+        verify(orderService, times(1)).placeOrder(1L, "pragnesh001", 2);
+    }
+
+    @Test
+    void testCheckout_CoalescedOrderIsPaidWhenItsBatchIsPlaced() {
+        Order placed = new Order("pragnesh001", 2, Money.of("1000.00"), OrderStatus.PLACED, LocalDateTime.now(), null);
+        CompletableFuture<Order> batch = new CompletableFuture<>();
+        when(orderCoalescer.isEnabled()).thenReturn(true);
+        when(orderCoalescer.place(1L, "pragnesh001", 2)).thenReturn(batch);
+        when(paymentGateway.charge(pending)).thenReturn(CompletableFuture.completedFuture(true));
+        when(orderService.confirmOrder(5L)).thenReturn(placed);
+
+        // returns while the batch is still open instead of waiting for it
+        CompletableFuture<OrderView> result = checkoutService.checkout(1L, "pragnesh001", 2);
+        assertFalse(result.isDone());
+        verifyNoInteractions(paymentGateway);
+
+        batch.complete(pending);
+
+        assertEquals(OrderStatus.PLACED, result.join().status());
+        verify(orderService, never()).placeOrder(any(), any(), anyInt());
+    }
+
+    @Test
+    void testCheckout_CoalescedRejectionGivesTheKeyBack() {
+        when(orderCoalescer.isEnabled()).thenReturn(true);
+        when(orderCoalescer.place(1L, "pragnesh001", 9))
+                .thenReturn(CompletableFuture.failedFuture(new InsufficientStockException("Only 2 items left in stock")));
+
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> checkoutService.checkout("key-5", 1L, "pragnesh001", 9).join());
+
+        assertInstanceOf(InsufficientStockException.class, thrown.getCause());
+        verify(idempotencyKeyRepository).deleteClaim("key-5");
+        verifyNoInteractions(paymentGateway);
+    }
+
+    private OrderCheckoutServiceImpl checkoutService(AdmissionControl admissionControl) {
+        // write-behind off, confirmations go straight to the order service
+        OrderConfirmationWriter confirmationWriter = new OrderConfirmationWriter(orderService, new SimpleMeterRegistry(),
+                false, 10, 10, "unused.wal");
+        return new OrderCheckoutServiceImpl(orderService, paymentGateway, new OrderMetrics(new SimpleMeterRegistry()),
+                idempotencyStore, new ObjectMapper().findAndRegisterModules(), confirmationWriter,
+                mock(ProductCatalogCache.class), orderCoalescer, admissionControl, 500);
+    }
+
+    private static AdmissionControl admissionControl(boolean enabled) {
+        return new AdmissionControl(new SimpleMeterRegistry(), enabled, 0.001, 1, 1000, 1000, 20, 2, 200, 250, 0.9);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.common.exception.InsufficientStockException;
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.dto.OrderLineRequest;
+import com.ecommerce.order.exception.ServiceUnavailableException;
+import com.ecommerce.order.model.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OrderCoalescerTest {
+
+    private OrderService orderService;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderCoalescer coalescer;
+
+    @BeforeEach
+    void setup() {
+        orderService = mock(OrderService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // a long window, so only a full batch or the timer decides when a batch is placed
+        coalescer = new OrderCoalescer(orderService, meterRegistry, true, 200, 3, 2);
+        coalescer.start();
+        // every line fits except quantities above 5
+        when(orderService.placeOrders(anyList())).thenAnswer(invocation -> {
+            List<OrderLineRequest> lines = invocation.getArgument(0);
+            List<OrderLineOutcome> outcomes = new ArrayList<>();
+            for (int i = 0; i < lines.size(); i++) {
+                OrderLineRequest line = lines.get(i);
+                outcomes.add(line.quantity() > 5
+                        ? OrderLineOutcome.rejected(i, new InsufficientStockException("Only 5 items left in stock"))
+                        : OrderLineOutcome.reserved(i, new Order(line.userId(), line.quantity(), Money.of("1.00"),
+                        OrderStatus.PENDING, LocalDateTime.now(), null)));
+            }
+            return outcomes;
+        });
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        coalescer.stop();
+    }
+
+    @Test
+    void testFullBatchIsPlacedAtOnceAndEachCallerGetsItsOwnOutcome() {
+        CompletableFuture<Order> first = coalescer.place(1L, "alice", 2);
+        CompletableFuture<Order> second = coalescer.place(1L, "bob", 9);
+        CompletableFuture<Order> third = coalescer.place(1L, "carol", 3);
+
+        assertEquals("alice", first.join().getUserId());
+        CompletionException rejected = assertThrows(CompletionException.class, second::join);
+        assertInstanceOf(InsufficientStockException.class, rejected.getCause());
+        assertEquals("carol", third.join().getUserId());
+        verify(orderService, times(1)).placeOrders(List.of(new OrderLineRequest(1L, "alice", 2),
+                new OrderLineRequest(1L, "bob", 9), new OrderLineRequest(1L, "carol", 3)));
+    }
+
+    @Test
+    void testWindowFlushesEachProductSeparately() {
+        CompletableFuture<Order> laptop1 = coalescer.place(1L, "alice", 1);
+        CompletableFuture<Order> laptop2 = coalescer.place(1L, "bob", 1);
+        CompletableFuture<Order> phone = coalescer.place(2L, "alice", 1);
+
+        CompletableFuture.allOf(laptop1, laptop2, phone).join();
+
+        verify(orderService).placeOrders(List.of(new OrderLineRequest(1L, "alice", 1), new OrderLineRequest(1L, "bob", 1)));
+        verify(orderService).placeOrders(List.of(new OrderLineRequest(2L, "alice", 1)));
+        assertEquals(2, meterRegistry.get("order.coalescing.batch_size").summary().count());
+        assertEquals(3, meterRegistry.get("order.coalescing.batch_size").summary().totalAmount());
+    }
+
+    @Test
+    void testFailedBatchFailsEveryCaller() {
+        reset(orderService);
+        when(orderService.placeOrders(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        CompletableFuture<Order> first = coalescer.place(1L, "alice", 1);
+        CompletableFuture<Order> second = coalescer.place(1L, "bob", 1);
+
+        assertEquals("database down", assertThrows(CompletionException.class, first::join).getCause().getMessage());
+        assertEquals("database down", assertThrows(CompletionException.class, second::join).getCause().getMessage());
+    }
+
+    @Test
+    void testFlushedLanesAreDropped() {
+        CompletableFuture.allOf(coalescer.place(1L, "alice", 1), coalescer.place(2L, "bob", 1)).join();
+
+        assertEquals(0, coalescer.openLanes());
+        // the next order for the product opens a fresh lane and is still placed
+        assertEquals("carol", coalescer.place(1L, "carol", 1).join().getUserId());
+        assertEquals(0, coalescer.openLanes());
+    }
+
+    @Test
+    void testPlaceAfterStopFailsCleanly() throws InterruptedException {
+        coalescer.stop();
+
+        CompletableFuture<Order> late = coalescer.place(1L, "alice", 1);
+
+        CompletionException thrown = assertThrows(CompletionException.class, late::join);
+        assertInstanceOf(ServiceUnavailableException.class, thrown.getCause());
+        verify(orderService, never()).placeOrders(anyList());
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.order.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OrderConfirmationWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final List<Long> confirmed = new CopyOnWriteArrayList<>();
+    private OrderConfirmationWriter writer;
+
+    private OrderConfirmationWriter start(int capacity) throws Exception {
+        writer = new OrderConfirmationWriter(orderService, new SimpleMeterRegistry(), true, capacity, 100,
+                dir.resolve("confirmations.wal").toString());
+        writer.start();
+        return writer;
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void testSubmittedOrdersAreConfirmedInBatches() throws Exception {
+        when(orderService.confirmOrders(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            confirmed.addAll(ids);
+            return ids.size();
+        });
+        start(1000);
+
+        for (long id = 1; id <= 300; id++) {
+            assertTrue(writer.submit(id));
+        }
+        writer.stop();
+
+        assertEquals(300, confirmed.size());
+        // the log was synced before submit returned, so every id is in it
+        assertEquals(300L * Long.BYTES, Files.size(dir.resolve("confirmations.wal")));
+    }
+
+    @Test
+    void testIdsLeftInLogAreConfirmedOnStart() throws Exception {
+        ByteBuffer log = ByteBuffer.allocate(2 * Long.BYTES + 3).putLong(7L).putLong(8L).put(new byte[3]);
+        Files.write(dir.resolve("confirmations.wal"), log.array());
+
+        start(10);
+
+        verify(orderService).confirmOrders(List.of(7L, 8L));
+        assertEquals(0, Files.size(dir.resolve("confirmations.wal")));
+    }
+
+    @Test
+    void testFullQueueFallsBackToCaller() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.confirmOrders(any())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 1;
+        });
+        start(1);
+
+        assertTrue(writer.submit(1L));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        assertTrue(writer.submit(2L));
+
+        assertFalse(writer.submit(3L));
+        release.countDown();
+    }
+}
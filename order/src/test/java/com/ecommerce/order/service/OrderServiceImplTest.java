@@ -1,20 +1,38 @@
 package com.ecommerce.order.service;
 
-import com.ecommerce.order.exception.InsufficientStockException;
-import com.ecommerce.order.exception.PaymentFailedException;
-import com.ecommerce.order.exception.ResourceNotFoundException;
-import com.ecommerce.order.exception.UserNotFoundException;
+import com.ecommerce.order.cache.CatalogEntry;
+import com.ecommerce.order.cache.ProductCatalogCache;
+import com.ecommerce.order.cache.UserExistenceCache;
+import com.ecommerce.order.common.dto.OrderCursor;
+import com.ecommerce.order.common.exception.InsufficientStockException;
+import com.ecommerce.order.common.exception.ResourceNotFoundException;
+import com.ecommerce.order.common.exception.UserNotFoundException;
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderEventType;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.dto.OrderLineRequest;
+import com.ecommerce.order.dto.OrderPage;
+import com.ecommerce.order.dto.OrderQuery;
+import com.ecommerce.order.dto.OrderView;
+import com.ecommerce.order.events.OrderEventOutbox;
+import com.ecommerce.order.inventory.InventoryLedger;
 import com.ecommerce.order.model.Order;
-import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.OrderLine;
+import com.ecommerce.order.model.OrderLineId;
 import com.ecommerce.order.model.Product;
-import com.ecommerce.order.model.User;
+import com.ecommerce.order.repository.OrderLineRepository;
 import com.ecommerce.order.repository.OrderRepository;
 import com.ecommerce.order.repository.ProductRepository;
 import com.ecommerce.order.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +43,13 @@ public class OrderServiceImplTest {
     private OrderRepository orderRepository;
     private ProductRepository productRepository;
     private UserRepository userRepository;
+    private StockReservationService stockReservationService;
+    private ProductCatalogCache productCatalogCache;
+    private UserExistenceCache userExistenceCache;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderMetrics orderMetrics;
+    private OrderEventOutbox orderEventOutbox;
+    private OrderLineRepository orderLineRepository;
     private OrderServiceImpl orderService;
 
     @BeforeEach
@@ -32,22 +57,29 @@ public class OrderServiceImplTest {
         orderRepository = mock(OrderRepository.class);
         productRepository = mock(ProductRepository.class);
         userRepository = mock(UserRepository.class);
-
-        orderService = new OrderServiceImpl(productRepository, orderRepository, userRepository);
+        meterRegistry = new SimpleMeterRegistry();
+        orderMetrics = new OrderMetrics(meterRegistry);
+        stockReservationService = new StockReservationServiceImpl(productRepository, orderMetrics, mock(InventoryLedger.class));
+
+        productCatalogCache = new ProductCatalogCache(productRepository, new SimpleMeterRegistry(), 100, 60);
+        orderEventOutbox = mock(OrderEventOutbox.class);
+        orderLineRepository = mock(OrderLineRepository.class);
+        userExistenceCache = new UserExistenceCache(userRepository, new SimpleMeterRegistry(), 100);
+        orderService = new OrderServiceImpl(productRepository, orderRepository, userExistenceCache, stockReservationService,
+                productCatalogCache, orderMetrics, orderEventOutbox, orderLineRepository);
     }
 
     @Test
     void testPlaceOrder_Success() {
         // Setup dummy product
-        Product product = new Product("Laptop", 50000.0, 10, LocalDateTime.now(), LocalDateTime.now());
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findCatalogEntryById(1L)).thenReturn(Optional.of(new CatalogEntry(1L, "Laptop", Money.of("50000.00"))));
+        when(productRepository.decrementStock(eq(1L), eq(2), any())).thenReturn(1);
 
         // Setup dummy user
-        User user = new User("1L", "user123", "Test", "user@test.com");
-        when(userRepository.findByUserId("user123")).thenReturn(Optional.of(user));
+        when(userRepository.existsByUserId("user123")).thenReturn(true);
 
         // Simulate saving the order
-        when(orderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Execute the service method
         Order order = orderService.placeOrder(1L, "user123", 2);
@@ -56,18 +88,281 @@ public class OrderServiceImplTest {
         assertNotNull(order);
         assertEquals("user123", order.getUserId());
         assertEquals(2, order.getQuantity());
-        assertEquals(100000.0, order.getTotalAmount());
-        assertEquals(OrderStatus.PLACED, order.getStatus());
+        assertEquals(Money.of("100000.00"), order.getTotalAmount());
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        // the event is written in the same transaction as the order
+        verify(orderEventOutbox).record(eq(OrderEventType.CREATED),
+                argThat((OrderView view) -> "Laptop".equals(view.productName()) && view.quantity() == 2));
+    }
+
+    @Test
+    void testPlaceOrder_ReadsCatalogOncePerProduct() {
+        when(productRepository.findCatalogEntryById(1L)).thenReturn(Optional.of(new CatalogEntry(1L, "Laptop", Money.of("500.00"))));
+        when(productRepository.decrementStock(eq(1L), eq(1), any())).thenReturn(1);
+        when(userRepository.existsByUserId("user123")).thenReturn(true);
+        when(orderRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.placeOrder(1L, "user123", 1);
+        orderService.placeOrder(1L, "user123", 1);
+
+        // catalog and user read once, but stock is decremented against the database for every order
+        verify(productRepository, times(1)).findCatalogEntryById(1L);
+        verify(userRepository, times(1)).existsByUserId("user123");
+        verify(productRepository, times(2)).decrementStock(eq(1L), eq(1), any());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void testPlaceOrder_StockTakenByConcurrentOrder() {
+        // Another order wins the conditional update first
+        when(productRepository.findCatalogEntryById(1L)).thenReturn(Optional.of(new CatalogEntry(1L, "Laptop", Money.of("50000.00"))));
+        when(productRepository.decrementStock(eq(1L), eq(3), any())).thenReturn(0);
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(2));
+
+        when(userRepository.existsByUserId("pragnesh001")).thenReturn(true);
+
+        InsufficientStockException thrown = assertThrows(
+                InsufficientStockException.class,
+                () -> orderService.placeOrder(1L, "pragnesh001", 3)
+        );
+
+        assertEquals("Only 2 items left in stock", thrown.getMessage());
+        verify(orderRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testPlaceOrders_ReservesEachProductOnceInArrivalOrder() {
+        Product laptop = new Product("Laptop", Money.of("500.00"), 5, LocalDateTime.now(), LocalDateTime.now());
+        laptop.setId(1L);
+        Product phone = new Product("Phone", Money.of("100.00"), 10, LocalDateTime.now(), LocalDateTime.now());
+        phone.setId(2L);
+        when(userRepository.findExistingUserIds(any())).thenReturn(List.of("pragnesh001"));
+        when(productRepository.findAllById(any())).thenReturn(List.of(laptop, phone));
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(5));
+        when(productRepository.findStockById(2L)).thenReturn(Optional.of(10));
+        // laptop lines 0 and 2 fit (3 + 2), line 3 asks for 4 more and does not
+        when(productRepository.decrementStock(eq(1L), eq(5), any())).thenReturn(1);
+        when(productRepository.decrementStock(eq(2L), eq(1), any())).thenReturn(1);
+
+        List<OrderLineOutcome> outcomes = orderService.placeOrders(List.of(
+                new OrderLineRequest(1L, "pragnesh001", 3),
+                new OrderLineRequest(2L, "pragnesh001", 1),
+                new OrderLineRequest(1L, "pragnesh001", 2),
+                new OrderLineRequest(1L, "pragnesh001", 4),
+                new OrderLineRequest(2L, "ghost", 1)));
+
+        assertTrue(outcomes.get(0).isReserved());
+        assertEquals(Money.of("1500.00"), outcomes.get(0).order().getTotalAmount());
+        assertTrue(outcomes.get(1).isReserved());
+        assertTrue(outcomes.get(2).isReserved());
+        // the 5 in stock went to lines 0 and 2
+        assertEquals("Only 0 items left in stock", outcomes.get(3).error());
+        assertEquals("User not found: ghost", outcomes.get(4).error());
+        verify(productRepository, times(1)).decrementStock(eq(1L), anyInt(), any());
+        verify(productRepository, times(1)).decrementStock(eq(2L), anyInt(), any());
+        verify(orderRepository).saveAllAndFlush(argThat(orders -> ((List<Order>) orders).size() == 3));
+    }
+
+    @Test
+    void testPlaceOrders_UsesTheLedgerStockWhileTheLedgerOwnsIt() {
+        InventoryLedger inventoryLedger = mock(InventoryLedger.class);
+        when(inventoryLedger.isEnabled()).thenReturn(true);
+        OrderServiceImpl ledgerOrderService = new OrderServiceImpl(productRepository, orderRepository, userExistenceCache,
+                new StockReservationServiceImpl(productRepository, orderMetrics, inventoryLedger),
+                productCatalogCache, orderMetrics, orderEventOutbox, orderLineRepository);
+        // the row still says 0 from the last flush, a product update has since put 4 into the ledger
+        Product laptop = new Product("Laptop", Money.of("500.00"), 0, LocalDateTime.now(), LocalDateTime.now());
+        laptop.setId(1L);
+        when(userRepository.findExistingUserIds(any())).thenReturn(List.of("pragnesh001"));
+        when(productRepository.findAllById(any())).thenReturn(List.of(laptop));
+        when(inventoryLedger.available(1L)).thenReturn(4);
+        when(inventoryLedger.tryReserve(1L, 3)).thenReturn(true);
+
+        List<OrderLineOutcome> outcomes = ledgerOrderService.placeOrders(List.of(
+                new OrderLineRequest(1L, "pragnesh001", 3),
+                new OrderLineRequest(1L, "pragnesh001", 2)));
+
+        assertTrue(outcomes.get(0).isReserved());
+        assertEquals("Only 1 items left in stock", outcomes.get(1).error());
+        verify(productRepository, never()).findStockById(any());
+        verify(productRepository, never()).decrementStock(any(), anyInt(), any());
+    }
+
+    @Test
+    void testPlaceCartOrder_ReservesProductsInIdOrderAsOneOrder() {
+        Product laptop = new Product("Laptop", Money.of("500.00"), 5, LocalDateTime.now(), LocalDateTime.now());
+        laptop.setId(1L);
+        Product phone = new Product("Phone", Money.of("100.00"), 10, LocalDateTime.now(), LocalDateTime.now());
+        phone.setId(2L);
+        when(userRepository.existsByUserId("pragnesh001")).thenReturn(true);
+        when(productRepository.findAllById(any())).thenReturn(List.of(phone, laptop));
+        when(productRepository.decrementStock(anyLong(), anyInt(), any())).thenReturn(1);
+        when(orderRepository.save(any())).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(7L);
+            return order;
+        });
+
+        Map<Long, Integer> cart = new LinkedHashMap<>();
+        cart.put(2L, 1);
+        cart.put(1L, 2);
+        Order order = orderService.placeCartOrder("pragnesh001", cart);
+
+        InOrder locks = inOrder(productRepository);
+        locks.verify(productRepository).decrementStock(eq(1L), eq(2), any());
+        locks.verify(productRepository).decrementStock(eq(2L), eq(1), any());
+        assertNull(order.getProduct());
+        assertEquals(3, order.getQuantity());
+        assertEquals(Money.of("1100.00"), order.getTotalAmount());
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        assertEquals(2, order.getLines().size());
+        assertEquals(new OrderLineId(7L, 1), order.getLines().get(0).getId());
+        assertEquals(laptop, order.getLines().get(0).getProduct());
+        verify(orderRepository, times(1)).save(any());
+    }
+
+    @Test
+    void testPlaceCartOrder_ShortfallOnAnyProductFailsTheWholeCart() {
+        Product laptop = new Product("Laptop", Money.of("500.00"), 5, LocalDateTime.now(), LocalDateTime.now());
+        laptop.setId(1L);
+        Product phone = new Product("Phone", Money.of("100.00"), 0, LocalDateTime.now(), LocalDateTime.now());
+        phone.setId(2L);
+        when(userRepository.existsByUserId("pragnesh001")).thenReturn(true);
+        when(productRepository.findAllById(any())).thenReturn(List.of(laptop, phone));
+        when(productRepository.decrementStock(eq(1L), eq(1), any())).thenReturn(1);
+        when(productRepository.decrementStock(eq(2L), eq(1), any())).thenReturn(0);
+        when(productRepository.findStockById(2L)).thenReturn(Optional.of(0));
+
+        InsufficientStockException thrown = assertThrows(InsufficientStockException.class,
+                () -> orderService.placeCartOrder("pragnesh001", Map.of(1L, 1, 2L, 1)));
+
+        // the laptop reservation is undone by the transaction rolling back
+        assertEquals("Phone: Only 0 items left in stock", thrown.getMessage());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void testReleaseOrder_CartReturnsStockPerLine() {
+        Product laptop = new Product("Laptop", Money.of("500.00"), 5, LocalDateTime.now(), LocalDateTime.now());
+        laptop.setId(1L);
+        Product phone = new Product("Phone", Money.of("100.00"), 10, LocalDateTime.now(), LocalDateTime.now());
+        phone.setId(2L);
+        Order pending = new Order("user123", 3, Money.of("1100.00"), OrderStatus.PENDING, LocalDateTime.now(), null);
+        pending.setId(7L);
+        when(orderRepository.findWithProductById(7L)).thenReturn(Optional.of(pending));
+        when(orderLineRepository.findWithProductByOrderId(7L)).thenReturn(List.of(
+                new OrderLine(pending, 1, laptop, 2, laptop.getPrice()),
+                new OrderLine(pending, 2, phone, 1, phone.getPrice())));
+        // only the first release moves the order out of PENDING
+        when(orderRepository.updateStatus(List.of(7L), OrderStatus.PENDING, OrderStatus.FAILED)).thenReturn(1, 0);
+
+        orderService.releaseOrder(7L);
+        orderService.releaseOrder(7L);
+
+        assertEquals(OrderStatus.FAILED, pending.getStatus());
+        verify(productRepository, times(1)).incrementStock(eq(1L), eq(2), any());
+        verify(productRepository, times(1)).incrementStock(eq(2L), eq(1), any());
+        verify(orderEventOutbox).record(eq(OrderEventType.FAILED), argThat((OrderView view) -> view.lines().size() == 2));
+    }
+
+    @Test
+    void testConfirmOrder_CartEventCarriesItsLines() {
+        Product laptop = new Product("Laptop", Money.of("500.00"), 5, LocalDateTime.now(), LocalDateTime.now());
+        laptop.setId(1L);
+        Product phone = new Product("Phone", Money.of("100.00"), 10, LocalDateTime.now(), LocalDateTime.now());
+        phone.setId(2L);
+        Order pending = new Order("user123", 3, Money.of("1100.00"), OrderStatus.PENDING, LocalDateTime.now(), null);
+        pending.setId(7L);
+        when(orderRepository.findWithProductById(7L)).thenReturn(Optional.of(pending));
+        when(orderLineRepository.findWithProductByOrderId(7L)).thenReturn(List.of(
+                new OrderLine(pending, 1, laptop, 2, laptop.getPrice()),
+                new OrderLine(pending, 2, phone, 1, phone.getPrice())));
+        when(orderRepository.updateStatus(List.of(7L), OrderStatus.PENDING, OrderStatus.PLACED)).thenReturn(1);
+
+        orderService.confirmOrder(7L);
+
+        // the sales aggregates count each product from the lines of the relayed event
+        verify(orderEventOutbox).record(eq(OrderEventType.PLACED), argThat((OrderView placed) -> placed.productId() == null
+                && placed.lines().size() == 2 && placed.lines().get(0).lineTotal().equals(Money.of("1000.00"))
+                && placed.lines().get(1).productId().equals(2L) && placed.lines().get(1).quantity() == 1));
+    }
+
+    @Test
+    void testGetOrders_ReturnsCursorOnlyWhenMoreRowsExist() {
+        LocalDateTime now = LocalDateTime.now();
+        OrderView newest = new OrderView(3L, "user123", 1L, "Laptop", 1, Money.of("10.00"), OrderStatus.PLACED, now);
+        OrderView middle = new OrderView(2L, "user123", 1L, "Laptop", 1, Money.of("10.00"), OrderStatus.PLACED, now.minusSeconds(1));
+        OrderView oldest = new OrderView(1L, "user123", 1L, "Laptop", 1, Money.of("10.00"), OrderStatus.PLACED, now.minusSeconds(2));
+        when(orderRepository.findPage(eq("user123"), isNull(), isNull(), isNull(), isNull(), isNull(), any()))
+                .thenReturn(List.of(newest, middle, oldest));
+        when(orderRepository.findPage(eq("user123"), isNull(), isNull(), isNull(), eq(middle.createdAt()), eq(2L), any()))
+                .thenReturn(List.of(oldest));
+
+        OrderQuery query = new OrderQuery("user123", null, null, null);
+        OrderPage first = orderService.getOrders(query, null, 2);
+        OrderPage second = orderService.getOrders(query, first.nextCursor(), 2);
+
+        assertEquals(List.of(newest, middle), first.orders());
+        assertEquals(new OrderCursor(middle.createdAt(), 2L), OrderCursor.decode(first.nextCursor()));
+        assertEquals(List.of(oldest), second.orders());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void testReleaseOrder_ReturnsStockOnce() {
+        Product product = new Product("Laptop", Money.of("50000.00"), 8, LocalDateTime.now(), LocalDateTime.now());
+        product.setId(1L);
+        Order pending = new Order("user123", 2, Money.of("100000.00"), OrderStatus.PENDING, LocalDateTime.now(), product);
+        when(orderRepository.findWithProductById(5L)).thenReturn(Optional.of(pending));
+        when(orderRepository.updateStatus(List.of(5L), OrderStatus.PENDING, OrderStatus.FAILED)).thenReturn(1, 0);
+
+        Order released = orderService.releaseOrder(5L);
+        orderService.releaseOrder(5L);
+
+        assertEquals(OrderStatus.FAILED, released.getStatus());
+        verify(productRepository, times(1)).incrementStock(eq(1L), eq(2), any());
+        verify(orderEventOutbox, times(1)).record(eq(OrderEventType.FAILED), any(OrderView.class));
+    }
+
+    @Test
+    void testReleaseOrder_LeavesAnOrderConfirmedFirstAlone() {
+        Product product = new Product("Laptop", Money.of("50000.00"), 8, LocalDateTime.now(), LocalDateTime.now());
+        product.setId(1L);
+        Order placed = new Order("user123", 2, Money.of("100000.00"), OrderStatus.PLACED, LocalDateTime.now(), product);
+        when(orderRepository.findWithProductById(5L)).thenReturn(Optional.of(placed));
+        // the payment confirmed the order between the sweeper's query and its release
+        when(orderRepository.updateStatus(List.of(5L), OrderStatus.PENDING, OrderStatus.FAILED)).thenReturn(0);
+
+        Order result = orderService.releaseOrder(5L);
+
+        assertEquals(OrderStatus.PLACED, result.getStatus());
+        verify(productRepository, never()).incrementStock(any(), anyInt(), any());
+        verify(orderEventOutbox, never()).record(eq(OrderEventType.FAILED), any(OrderView.class));
+    }
+
+    @Test
+    void testConfirmOrder_RecordsPlacedEventOnce() {
+        Product product = new Product("Laptop", Money.of("50000.00"), 8, LocalDateTime.now(), LocalDateTime.now());
+        product.setId(1L);
+        Order pending = new Order("user123", 2, Money.of("100000.00"), OrderStatus.PENDING, LocalDateTime.now(), product);
+        when(orderRepository.findWithProductById(5L)).thenReturn(Optional.of(pending));
+        when(orderRepository.updateStatus(List.of(5L), OrderStatus.PENDING, OrderStatus.PLACED)).thenReturn(1, 0);
+
+        orderService.confirmOrder(5L);
+        orderService.confirmOrder(5L);
+
+        assertEquals(OrderStatus.PLACED, pending.getStatus());
+        verify(orderEventOutbox, times(1)).record(eq(OrderEventType.PLACED), argThat((OrderView placed) ->
+                placed.totalAmount().equals(Money.of("100000.00")) && placed.status() == OrderStatus.PLACED));
     }
 
     @Test
     void testPlaceOrder_ProductNotFound() {
         //  Setup valid user (so user check passes)
-        User user = new User("pragnesh001", "Pragnesh", "prag@example.com", "123456");
-        when(userRepository.findByUserId("pragnesh001")).thenReturn(Optional.of(user));
+        when(userRepository.existsByUserId("pragnesh001")).thenReturn(true);
 
         //  No product with ID 99
-        when(productRepository.findById(99L)).thenReturn(Optional.empty());
+        when(productRepository.findCatalogEntryById(99L)).thenReturn(Optional.empty());
 
         //  Expect product-not-found exception
         ResourceNotFoundException thrown = assertThrows(
@@ -81,12 +376,11 @@ public class OrderServiceImplTest {
     @Test
     void testPlaceOrder_InsufficientStock() {
         // Mock valid product with only 1 item in stock
-        Product product = new Product("Laptop", 50000.0, 1, LocalDateTime.now(), LocalDateTime.now());
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findCatalogEntryById(1L)).thenReturn(Optional.of(new CatalogEntry(1L, "Laptop", Money.of("50000.00"))));
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(1));
 
         // Mock valid user
-        User user = new User("pragnesh001", "Pragnesh", "prag@example.com", "123456");
-        when(userRepository.findByUserId("pragnesh001")).thenReturn(Optional.of(user));
+        when(userRepository.existsByUserId("pragnesh001")).thenReturn(true);
 
         // Try ordering more than stock available
         InsufficientStockException thrown = assertThrows(
@@ -96,17 +390,17 @@ public class OrderServiceImplTest {
         );
 
         assertEquals("Only 1 items left in stock", thrown.getMessage());
+        assertEquals(1.0, meterRegistry.counter("order.outcome", "productId", "1", "outcome", "insufficient_stock").count());
     }
 
     @Test
     void testPlaceOrder_UserNotFound() {
         //  Mock valid product
         String userId = "invalidUser";
-        Product product = new Product("Laptop", 50000.0, 5, LocalDateTime.now(), LocalDateTime.now());
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findCatalogEntryById(1L)).thenReturn(Optional.of(new CatalogEntry(1L, "Laptop", Money.of("50000.00"))));
 
         //  No user returned
-        when(userRepository.findByUserId("invalidUser")).thenReturn(Optional.empty());
+        when(userRepository.existsByUserId("invalidUser")).thenReturn(false);
 
         UserNotFoundException thrown = assertThrows(
                 UserNotFoundException.class,
@@ -116,56 +410,6 @@ public class OrderServiceImplTest {
         assertEquals("User not found: " + userId, thrown.getMessage());
     }
 
-
-    @Test
-    void testPlaceOrder_PaymentFailure() {
-        // Mock product with enough stock
-        Product product = new Product("Laptop", 50000.0, 10, LocalDateTime.now(), LocalDateTime.now());
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-
-        // Mock valid user
-        User user = new User("pragnesh001", "Pragnesh", "prag@example.com", "123456");
-        when(userRepository.findByUserId("pragnesh001")).thenReturn(Optional.of(user));
-
-        // Simulate payment failure by forcing Random to return false
-        OrderServiceImpl orderServiceWithFailingPayment = new OrderServiceImpl(productRepository, orderRepository, userRepository) {
-            @Override
-            public Order placeOrder(Long productId, String userId, int quantity) {
-                // Same logic, but force payment to fail
-                Optional<Product> optionalProduct = productRepository.findById(productId);
-                if (optionalProduct.isEmpty()) {
-                    throw new ResourceNotFoundException("Product not found with id: " + productId);
-                }
-
-                Optional<User> optionalUser = userRepository.findByUserId(userId);
-                if (optionalUser.isEmpty()) {
-                    throw new UserNotFoundException("User not found: " + userId);
-                }
-
-                Product product = optionalProduct.get();
-
-                if (product.getStock() < quantity) {
-                    throw new InsufficientStockException("Only " + product.getStock() + " items left in stock");
-                }
-
-                boolean paymentSuccess = false; // Force payment failure
-
-                if (!paymentSuccess) {
-                    throw new PaymentFailedException("Payment failed. Order not placed.");
-                }
-
-                return null; // should not reach here
-            }
-        };
-
-        PaymentFailedException thrown = assertThrows(
-                PaymentFailedException.class,
-                () -> orderServiceWithFailingPayment.placeOrder(1L, "pragnesh001", 2)
-        );
-
-        assertEquals("Payment failed. Order not placed.", thrown.getMessage());
-    }
-
 //
 
 
@@ -0,0 +1,90 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.common.model.OrderStatus;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.payment.PaymentGateway;
+import com.ecommerce.order.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PendingOrderSweeperTest {
+
+    @Test
+    void testSweep_ReleasesStaleOrdersAndSkipsOneThatFails() {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        OrderService orderService = mock(OrderService.class);
+        PaymentGateway paymentGateway = unpaid();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PendingOrderSweeper sweeper = new PendingOrderSweeper(orderRepository, orderService, paymentGateway, meterRegistry, 15, 500);
+
+        LocalDateTime before = LocalDateTime.now().minusMinutes(15);
+        when(orderRepository.findIdsCreatedBefore(eq(OrderStatus.PENDING), any(), any())).thenReturn(List.of(3L, 4L, 5L));
+        when(orderService.releaseOrder(3L)).thenReturn(order(OrderStatus.FAILED));
+        when(orderService.releaseOrder(4L)).thenThrow(new IllegalStateException("connection reset"));
+        when(orderService.releaseOrder(5L)).thenReturn(order(OrderStatus.FAILED));
+
+        sweeper.sweep();
+
+        verify(orderRepository).findIdsCreatedBefore(eq(OrderStatus.PENDING),
+                argThat(cutoff -> !cutoff.isBefore(before) && cutoff.isBefore(LocalDateTime.now().minusMinutes(14))), any());
+        verify(orderService).releaseOrder(5L);
+        assertEquals(2.0, meterRegistry.counter("order.pending.expired").count());
+    }
+
+    @Test
+    void testSweep_ConfirmsAnOrderWhoseChargeWasCaptured() {
+        // the payment went through but confirming it failed, or the write-behind writer is still retrying
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        OrderService orderService = mock(OrderService.class);
+        PaymentGateway paymentGateway = unpaid();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PendingOrderSweeper sweeper = new PendingOrderSweeper(orderRepository, orderService, paymentGateway, meterRegistry, 15, 500);
+
+        when(orderRepository.findIdsCreatedBefore(eq(OrderStatus.PENDING), any(), any())).thenReturn(List.of(3L, 4L));
+        when(paymentGateway.isCaptured(3L)).thenReturn(CompletableFuture.completedFuture(true));
+        when(orderService.confirmOrder(3L)).thenReturn(order(OrderStatus.PLACED));
+        when(orderService.releaseOrder(4L)).thenReturn(order(OrderStatus.FAILED));
+
+        sweeper.sweep();
+
+        verify(orderService, never()).releaseOrder(3L);
+        verify(orderService).confirmOrder(3L);
+        assertEquals(1.0, meterRegistry.counter("order.pending.recovered").count());
+        assertEquals(1.0, meterRegistry.counter("order.pending.expired").count());
+    }
+
+    @Test
+    void testSweep_LeavesTheOrderPendingWhenThePaymentLookupFails() {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        OrderService orderService = mock(OrderService.class);
+        PaymentGateway paymentGateway = mock(PaymentGateway.class);
+        PendingOrderSweeper sweeper = new PendingOrderSweeper(orderRepository, orderService, paymentGateway,
+                new SimpleMeterRegistry(), 15, 500);
+
+        when(orderRepository.findIdsCreatedBefore(eq(OrderStatus.PENDING), any(), any())).thenReturn(List.of(3L));
+        when(paymentGateway.isCaptured(3L)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("timeout")));
+
+        sweeper.sweep();
+
+        verify(orderService, never()).releaseOrder(any());
+        verify(orderService, never()).confirmOrder(any());
+    }
+
+    private static PaymentGateway unpaid() {
+        PaymentGateway paymentGateway = mock(PaymentGateway.class);
+        when(paymentGateway.isCaptured(any())).thenReturn(CompletableFuture.completedFuture(false));
+        return paymentGateway;
+    }
+
+    private static Order order(OrderStatus status) {
+        return new Order("user123", 1, Money.of("10.00"), status, LocalDateTime.now(), null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.cache.ProductCatalogCache;
+import com.ecommerce.order.common.exception.VersionConflictException;
+import com.ecommerce.order.common.model.Money;
+import com.ecommerce.order.inventory.InventoryLedger;
+import com.ecommerce.order.model.Product;
+import com.ecommerce.order.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ProductServiceImplTest {
+
+    private ProductRepository productRepository;
+    private InventoryLedger inventoryLedger;
+    private ProductServiceImpl productService;
+    private Product stored;
+
+    @BeforeEach
+    void setup() {
+        productRepository = mock(ProductRepository.class);
+        inventoryLedger = mock(InventoryLedger.class);
+        productService = new ProductServiceImpl(productRepository, mock(ProductCatalogCache.class), inventoryLedger);
+
+        // an order has already moved the product from version 3 to 4
+        stored = new Product("Laptop", Money.of("500.00"), 9, LocalDateTime.now(), LocalDateTime.now());
+        stored.setId(1L);
+        stored.setVersion(4L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(productRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testUpdateProduct_StaleVersionIsRefused() {
+        Product update = new Product("Laptop", Money.of("450.00"), 10, null, null);
+
+        VersionConflictException ex = assertThrows(VersionConflictException.class,
+                () -> productService.updateProduct(1L, update, 3));
+
+        assertTrue(ex.getMessage().contains("version 4"));
+        // the order's decrement is not overwritten, and nothing is retried
+        verify(productRepository, never()).save(any());
+        assertEquals(9, stored.getStock());
+    }
+
+    @Test
+    void testUpdateProduct_CurrentVersionIsWritten() {
+        Product update = new Product("Laptop", Money.of("450.00"), 20, null, null);
+
+        Product saved = productService.updateProduct(1L, update, 4);
+
+        assertEquals(20, saved.getStock());
+        assertEquals(Money.of("450.00"), saved.getPrice());
+        verify(productRepository).save(stored);
+    }
+
+    @Test
+    void testUpdateProduct_LedgerStockIsNotSetWhenTheRowMovedOn() {
+        when(inventoryLedger.isEnabled()).thenReturn(true);
+        // another update committed between the read and the conditional update
+        when(productRepository.updateDetails(eq(1L), any(), any(), eq(4L), any())).thenReturn(0);
+        Product update = new Product("Laptop", Money.of("450.00"), 20, null, null);
+
+        assertThrows(VersionConflictException.class, () -> productService.updateProduct(1L, update, 4));
+
+        verify(inventoryLedger, never()).set(any(), anyInt());
+    }
+}